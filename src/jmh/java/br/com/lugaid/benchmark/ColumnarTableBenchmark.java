@@ -0,0 +1,101 @@
+package br.com.lugaid.benchmark;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sap.conn.jco.JCoParameterList;
+
+import br.com.lugaid.benchmark.generated.BenchOrdersTable;
+import br.com.lugaid.business.FunctionModuleMetadata;
+import br.com.lugaid.business.MetadataSnapshot;
+
+/**
+ * Compare the ITEMS table of Z_BENCH_ORDERS generated as list of rows and
+ * generated as columns with the columnar tables option, reading the table
+ * from JCo and scanning the numeric fields of all rows already read.
+ *
+ * @author Emerson Rancoletta
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ColumnarTableBenchmark {
+	private static final String FUNCTION_MODULE = "Z_BENCH_ORDERS";
+	private static final String SNAPSHOT_DIR = "src/jmh/snapshots";
+	private static final String TABLE = "ITEMS";
+
+	@Param({ "1000", "100000" })
+	private int rows;
+
+	private JCoParameterList source;
+	private BenchOrdersTable rowTables;
+	private br.com.lugaid.benchmark.generated.columnar.BenchOrdersTable columnTables;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		Path snapshot = FileSystems.getDefault().getPath(SNAPSHOT_DIR,
+				MetadataSnapshot.fileName(FUNCTION_MODULE));
+		FunctionModuleMetadata metadata = MetadataSnapshot.readFile(snapshot);
+
+		source = InMemoryJCo.parameterList(metadata.getTableFields());
+		InMemoryJCo.fillRows(source.getTable(TABLE), rows, 0);
+
+		rowTables = new BenchOrdersTable(source);
+		columnTables = new br.com.lugaid.benchmark.generated.columnar.BenchOrdersTable(
+				source);
+	}
+
+	@Benchmark
+	public BenchOrdersTable readRows() {
+		return new BenchOrdersTable(source);
+	}
+
+	@Benchmark
+	public br.com.lugaid.benchmark.generated.columnar.BenchOrdersTable readColumns() {
+		return new br.com.lugaid.benchmark.generated.columnar.BenchOrdersTable(
+				source);
+	}
+
+	@Benchmark
+	public long scanRows() {
+		long sum = 0;
+
+		for (BenchOrdersTable.Items item : rowTables.getItemss()) {
+			sum += item.getItemNo() + item.getItemCount();
+		}
+
+		return sum;
+	}
+
+	@Benchmark
+	public long scanColumns() {
+		long sum = 0;
+		br.com.lugaid.benchmark.generated.columnar.BenchOrdersTable.Items.Cursor cursor = columnTables
+				.getItemss().cursor();
+
+		while (cursor.next()) {
+			sum += cursor.getItemNo() + cursor.getItemCount();
+		}
+
+		return sum;
+	}
+}
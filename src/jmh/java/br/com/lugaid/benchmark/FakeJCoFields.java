@@ -0,0 +1,138 @@
+package br.com.lugaid.benchmark;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+import com.sap.conn.jco.JCoField;
+import com.sap.conn.jco.JCoFieldIterator;
+import com.sap.conn.jco.JCoStructure;
+import com.sap.conn.jco.JCoTable;
+
+import br.com.lugaid.business.Sap2JavaField;
+
+/**
+ * JCoFieldIterator over a synthetic model, only the methods read by
+ * Sap2JavaField.mapTypes are answered.
+ *
+ * @author Emerson Rancoletta
+ * @version 1.0
+ */
+public class FakeJCoFields {
+	private FakeJCoFields() {
+	}
+
+	/**
+	 * Create iterator over the fields of a model
+	 *
+	 * @param fields
+	 *            Model fields
+	 * @return Field iterator
+	 */
+	public static JCoFieldIterator iterator(List<Sap2JavaField> fields) {
+		return proxy(JCoFieldIterator.class, new IteratorHandler(fields));
+	}
+
+	private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+		return type.cast(Proxy.newProxyInstance(
+				FakeJCoFields.class.getClassLoader(), new Class<?>[] { type },
+				handler));
+	}
+
+	/**
+	 * Answer JCoFieldIterator methods
+	 */
+	private static class IteratorHandler implements InvocationHandler {
+		private JCoField[] jcoFields;
+		private int position;
+
+		public IteratorHandler(List<Sap2JavaField> fields) {
+			this.jcoFields = new JCoField[fields.size()];
+
+			for (int i = 0; i < jcoFields.length; i++) {
+				jcoFields[i] = proxy(JCoField.class,
+						new FieldHandler(fields.get(i)));
+			}
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) {
+			switch (method.getName()) {
+			case "reset":
+				position = 0;
+				return null;
+			case "hasNextField":
+				return position < jcoFields.length;
+			case "nextField":
+				return jcoFields[position++];
+			default:
+				throw new UnsupportedOperationException(method.getName());
+			}
+		}
+	}
+
+	/**
+	 * Answer JCoField methods, STRUCTURE and TABLE fields answer a record
+	 * with the iterator of their sub fields. Records are created once, so
+	 * mapping allocates only what mapTypes allocates.
+	 */
+	private static class FieldHandler implements InvocationHandler {
+		private Sap2JavaField field;
+		private JCoStructure structure;
+		private JCoTable table;
+
+		public FieldHandler(Sap2JavaField field) {
+			this.field = field;
+
+			if (!field.isFinalLevel()) {
+				RecordHandler record = new RecordHandler(
+						iterator(field.getListSubField()));
+				structure = proxy(JCoStructure.class, record);
+				table = proxy(JCoTable.class, record);
+			}
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) {
+			switch (method.getName()) {
+			case "getName":
+				return field.getSapName();
+			case "getDescription":
+				return field.getSapDescription();
+			case "getTypeAsString":
+				return field.getSapType();
+			case "getLength":
+				return field.getSapLength();
+			case "getDecimals":
+				return field.getSapDecimals();
+			case "getStructure":
+				return structure;
+			case "getTable":
+				return table;
+			default:
+				throw new UnsupportedOperationException(method.getName());
+			}
+		}
+	}
+
+	/**
+	 * Answer getFieldIterator of structures and tables
+	 */
+	private static class RecordHandler implements InvocationHandler {
+		private JCoFieldIterator fieldIterator;
+
+		public RecordHandler(JCoFieldIterator fieldIterator) {
+			this.fieldIterator = fieldIterator;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) {
+			if (method.getName().equals("getFieldIterator")) {
+				return fieldIterator;
+			}
+
+			throw new UnsupportedOperationException(method.getName());
+		}
+	}
+}
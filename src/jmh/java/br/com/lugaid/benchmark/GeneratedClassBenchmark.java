@@ -0,0 +1,106 @@
+package br.com.lugaid.benchmark;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sap.conn.jco.JCoParameterList;
+import com.sap.conn.jco.JCoTable;
+
+import br.com.lugaid.benchmark.generated.BenchOrdersTable;
+import br.com.lugaid.business.FunctionModuleMetadata;
+import br.com.lugaid.business.MetadataSnapshot;
+
+/**
+ * Mapping done by generated classes on every RFC call, fillClassAttributes
+ * reads JCo parameters into the classes and fillJCoParameter writes them
+ * back, over the in memory stand-in of JCo. streamRows reads the rows one by
+ * one like the callers streaming rows to consumers.
+ *
+ * The classes are generated by the build from the snapshot of the synthetic
+ * Z_BENCH_ORDERS function module with the current templates, so template
+ * variants are compared running the same benchmark. ITEMS is a flat table,
+ * SCHEDULES has a table with two lines inside each row.
+ *
+ * @author Emerson Rancoletta
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class GeneratedClassBenchmark {
+	private static final String FUNCTION_MODULE = "Z_BENCH_ORDERS";
+	private static final String SNAPSHOT_DIR = "src/jmh/snapshots";
+	private static final int NESTED_ROWS = 2;
+
+	@Param({ "1", "1000", "100000" })
+	private int rows;
+
+	@Param({ "ITEMS", "SCHEDULES" })
+	private String table;
+
+	private FunctionModuleMetadata metadata;
+	private JCoParameterList source;
+	private JCoParameterList target;
+	private BenchOrdersTable tables;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		Path snapshot = FileSystems.getDefault().getPath(SNAPSHOT_DIR,
+				MetadataSnapshot.fileName(FUNCTION_MODULE));
+
+		metadata = MetadataSnapshot.readFile(snapshot);
+		source = InMemoryJCo.parameterList(metadata.getTableFields());
+		target = InMemoryJCo.parameterList(metadata.getTableFields());
+
+		InMemoryJCo.fillRows(source.getTable(table), rows, NESTED_ROWS);
+
+		tables = new BenchOrdersTable(source);
+	}
+
+	@Benchmark
+	public BenchOrdersTable fillClassAttributes() {
+		return new BenchOrdersTable(source);
+	}
+
+	@Benchmark
+	public int streamRows() {
+		JCoTable jcoTable = source.getTable(table);
+		Iterator<?> rows = "ITEMS".equals(table) ? BenchOrdersTable.Items
+				.rows(jcoTable) : BenchOrdersTable.Schedules.rows(jcoTable);
+		int count = 0;
+
+		while (rows.hasNext()) {
+			if (rows.next() != null) {
+				count++;
+			}
+		}
+
+		return count;
+	}
+
+	@Benchmark
+	public JCoParameterList fillJCoParameter() {
+		tables.fillJCoParameter(target);
+
+		return target;
+	}
+}
@@ -0,0 +1,84 @@
+package br.com.lugaid.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sap.conn.jco.JCoFieldIterator;
+
+import br.com.lugaid.business.CallerClassGenerator;
+import br.com.lugaid.business.ParameterClassGenerator;
+import br.com.lugaid.business.Sap2JavaField;
+import br.com.lugaid.business.TemplateRegistry;
+
+/**
+ * Stages of the generation of one function module: mapping of JCo metadata,
+ * rendering of parameter classes and building of caller parameters.
+ *
+ * Run with -prof gc to see the allocation of each stage.
+ *
+ * @author Emerson Rancoletta
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeneratorPipelineBenchmark {
+	@Param({ SyntheticModel.FLAT, SyntheticModel.WIDE, SyntheticModel.NESTED })
+	private String shape;
+
+	private List<Sap2JavaField> model;
+	private JCoFieldIterator fieldIterator;
+	private CallerClassGenerator caller;
+
+	@Setup
+	public void setup() {
+		model = SyntheticModel.shape(shape);
+		fieldIterator = FakeJCoFields.iterator(model);
+		caller = new CallerClassGenerator("Z_BENCHMARK", "Benchmark",
+				"BenchmarkCaller", "BenchmarkImport", "BenchmarkExport",
+				"BenchmarkChanging", "BenchmarkTable", model, model, model,
+				model);
+
+		// Templates are compiled once per process, not per generation
+		TemplateRegistry.preload();
+	}
+
+	@Benchmark
+	public List<Sap2JavaField> mapTypes() {
+		return Sap2JavaField.mapTypes(fieldIterator);
+	}
+
+	/**
+	 * Render a copy of the model, names are derived while rendering like on a
+	 * real generation
+	 */
+	@Benchmark
+	public long renderParameterClass() {
+		NullWriter writer = new NullWriter();
+
+		new ParameterClassGenerator("BenchmarkImport",
+				SyntheticModel.copy(model)).writeClassFile(writer);
+
+		return writer.getWritten();
+	}
+
+	@Benchmark
+	public String buildCallerParameter() {
+		return caller.buildCallerParameter();
+	}
+}
@@ -0,0 +1,1086 @@
+package br.com.lugaid.benchmark;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import com.sap.conn.jco.JCoAbapObject;
+import com.sap.conn.jco.JCoField;
+import com.sap.conn.jco.JCoFieldIterator;
+import com.sap.conn.jco.JCoListMetaData;
+import com.sap.conn.jco.JCoMetaData;
+import com.sap.conn.jco.JCoParameterFieldIterator;
+import com.sap.conn.jco.JCoParameterList;
+import com.sap.conn.jco.JCoRecord;
+import com.sap.conn.jco.JCoRecordFieldIterator;
+import com.sap.conn.jco.JCoRecordMetaData;
+import com.sap.conn.jco.JCoStructure;
+import com.sap.conn.jco.JCoTable;
+
+import br.com.lugaid.business.Sap2JavaField;
+
+/**
+ * In memory stand-in for JCoParameterList, JCoStructure and JCoTable built
+ * from function module metadata, so generated classes run without SAP.
+ *
+ * Records follow JCo semantics used by generated code: clear of a table
+ * deletes all rows, values are set on the current row and setting a value
+ * without current row fails. Like JCo, strings and dates are created on each
+ * read from the stored value, while numeric fields are kept in primitive
+ * columns and read and written without boxing. Records are plain classes, so
+ * accessors by index and by name cost no allocation of their own and the
+ * allocation measured is the one of the generated code. Methods not used by
+ * generated code throw UnsupportedOperationException.
+ *
+ * The metadata of each structure or table definition is one instance shared
+ * by all its records, as in JCo, so generated classes resolve field
+ * positions once. It is a dynamic proxy, only called when positions are
+ * resolved.
+ *
+ * @author Emerson Rancoletta
+ * @version 1.0
+ */
+public class InMemoryJCo {
+	private static final Date SAMPLE_DATE = new Date(1420070400000L);
+	private static final int OBJECT = 0;
+	private static final int INTEGER = 1;
+	private static final int FLOAT = 2;
+
+	private InMemoryJCo() {
+	}
+
+	/**
+	 * Create parameter list with initial values
+	 *
+	 * @param fields
+	 *            Parameters of the list
+	 * @return Parameter list
+	 */
+	public static JCoParameterList parameterList(List<Sap2JavaField> fields) {
+		return new ParameterList(new Definition(fields));
+	}
+
+	/**
+	 * Fill a table with sample rows, tables of each row are filled with the
+	 * informed number of rows too.
+	 *
+	 * @param table
+	 *            Table created by this class
+	 * @param rows
+	 *            Number of rows
+	 * @param nestedRows
+	 *            Number of rows of tables inside rows
+	 */
+	public static void fillRows(JCoTable table, int rows, int nestedRows) {
+		Table record = (Table) table;
+
+		record.deleteAllRows();
+		record.appendRows(rows);
+
+		for (int i = 0; i < rows; i++) {
+			record.setRow(i);
+			fillValues(record, i, nestedRows);
+		}
+
+		record.row = rows > 0 ? 0 : -1;
+	}
+
+	/**
+	 * Fill a parameter list or structure with sample values
+	 *
+	 * @param record
+	 *            Record created by this class
+	 * @param nestedRows
+	 *            Number of rows of tables inside the record
+	 */
+	public static void fillValues(Object record, int nestedRows) {
+		fillValues((Record) record, 1, nestedRows);
+	}
+
+	private static void fillValues(Record record, int seed, int nestedRows) {
+		List<Sap2JavaField> fields = record.definition.fields;
+
+		for (int i = 0; i < fields.size(); i++) {
+			Sap2JavaField field = fields.get(i);
+
+			if (field.isTable()) {
+				fillRows(record.getTable(i), nestedRows, nestedRows);
+			} else if (field.isStructure()) {
+				fillValues(record.getStructure(i), nestedRows);
+			} else {
+				record.setValue(i, sampleValue(field, seed));
+			}
+		}
+	}
+
+	/**
+	 * Sample value of a final field, derived from the row number
+	 */
+	private static Object sampleValue(Sap2JavaField field, int seed) {
+		switch (field.getSapType()) {
+		case "CHAR":
+			String value = "V" + seed;
+			return value.length() > field.getSapLength() ? value.substring(0,
+					field.getSapLength()) : value;
+		case "STRING":
+			return "Sample text of row " + seed;
+		case "NUM":
+			return Long.valueOf(seed);
+		case "INT":
+			return Integer.valueOf(seed);
+		case "BCD":
+			return BigDecimal.valueOf(seed, field.getSapDecimals());
+		case "DATE":
+		case "TIME":
+			return SAMPLE_DATE;
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Initial value of a field kept as object like JCo initializes a new row,
+	 * structures and tables are created when first read
+	 */
+	private static Object initialValue(Sap2JavaField field) {
+		if (!field.isFinalLevel()) {
+			return null;
+		}
+
+		switch (field.getSapType()) {
+		case "CHAR":
+		case "STRING":
+			return "";
+		case "BCD":
+			return BigDecimal.ZERO;
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Column kind of a field, numbers are kept in primitive columns
+	 */
+	private static int kind(Sap2JavaField field) {
+		if (!field.isFinalLevel()) {
+			return OBJECT;
+		}
+
+		switch (field.getSapType()) {
+		case "INT":
+		case "INT1":
+		case "INT2":
+		case "INT8":
+		case "NUM":
+			return INTEGER;
+		case "FLOAT":
+			return FLOAT;
+		default:
+			return OBJECT;
+		}
+	}
+
+	private static UnsupportedOperationException unsupported(String method) {
+		return new UnsupportedOperationException(method);
+	}
+
+	/**
+	 * Fields of a parameter list, structure or table type with the metadata
+	 * shared by all its records
+	 */
+	private static class Definition {
+		private List<Sap2JavaField> fields;
+		private Map<String, Integer> index = new HashMap<>();
+		private int[] kinds;
+		private Sap2JavaField[] initialFields;
+		private Definition[] nested;
+		private Object metaData;
+
+		public Definition(List<Sap2JavaField> fields) {
+			this.fields = fields;
+			this.kinds = new int[fields.size()];
+			this.nested = new Definition[fields.size()];
+
+			for (int i = 0; i < fields.size(); i++) {
+				Sap2JavaField field = fields.get(i);
+
+				index.put(field.getSapName(), i);
+				kinds[i] = kind(field);
+
+				if (!field.isFinalLevel()) {
+					nested[i] = new Definition(field.getListSubField());
+				}
+			}
+
+			metaData = Proxy.newProxyInstance(
+					InMemoryJCo.class.getClassLoader(), new Class<?>[] {
+							JCoRecordMetaData.class, JCoListMetaData.class },
+					new MetaData(this));
+		}
+
+		private int field(String name) {
+			Integer position = index.get(name);
+
+			if (position == null) {
+				throw new IllegalArgumentException(String.format(
+						"Field %s not found.", name));
+			}
+
+			return position;
+		}
+	}
+
+	/**
+	 * Values of a record kept by column, structures and parameter lists have
+	 * always one row
+	 */
+	private abstract static class Record implements JCoRecord {
+		private static final long serialVersionUID = 1L;
+
+		private Definition definition;
+		private Object[][] objects;
+		private long[][] numbers;
+		private int capacity;
+		protected int size;
+		protected int row = -1;
+
+		public Record(Definition definition, int capacity) {
+			int count = definition.fields.size();
+
+			this.definition = definition;
+			this.objects = new Object[count][];
+			this.numbers = new long[count][];
+			this.capacity = capacity;
+
+			for (int i = 0; i < count; i++) {
+				if (definition.kinds[i] == OBJECT) {
+					objects[i] = new Object[capacity];
+				} else {
+					numbers[i] = new long[capacity];
+				}
+			}
+		}
+
+		/**
+		 * Grow the columns to hold at least rows
+		 */
+		protected void ensureCapacity(int rows) {
+			if (rows <= capacity) {
+				return;
+			}
+
+			capacity = Math.max(rows, capacity * 2);
+
+			for (int i = 0; i < objects.length; i++) {
+				if (objects[i] != null) {
+					objects[i] = Arrays.copyOf(objects[i], capacity);
+				} else {
+					numbers[i] = Arrays.copyOf(numbers[i], capacity);
+				}
+			}
+		}
+
+		/**
+		 * Set initial values into a row
+		 */
+		protected void initRow(int position) {
+			for (int i = 0; i < objects.length; i++) {
+				if (objects[i] != null) {
+					objects[i][position] = initialValue(definition.fields.get(i));
+				} else {
+					numbers[i][position] = 0;
+				}
+			}
+		}
+
+		private void checkRow() {
+			if (row < 0 || row >= size) {
+				throw new IllegalStateException("No current row.");
+			}
+		}
+
+		private Object object(int field) {
+			checkRow();
+
+			switch (definition.kinds[field]) {
+			case INTEGER:
+				return Long.valueOf(numbers[field][row]);
+			case FLOAT:
+				return Double.valueOf(Double.longBitsToDouble(numbers[field][row]));
+			default:
+				Object value = objects[field][row];
+
+				if (value == null && definition.nested[field] != null) {
+					value = definition.fields.get(field).isTable() ? new Table(
+							definition.nested[field]) : new Structure(
+							definition.nested[field]);
+					objects[field][row] = value;
+				}
+
+				return value;
+			}
+		}
+
+		private void store(int field, Object value) {
+			checkRow();
+
+			switch (definition.kinds[field]) {
+			case INTEGER:
+				numbers[field][row] = value == null ? 0
+						: value instanceof Number ? ((Number) value).longValue()
+								: Long.parseLong(value.toString().trim());
+				break;
+			case FLOAT:
+				numbers[field][row] = Double.doubleToRawLongBits(value == null ? 0
+						: value instanceof Number ? ((Number) value)
+								.doubleValue() : Double.parseDouble(value
+								.toString()));
+				break;
+			default:
+				objects[field][row] = value;
+			}
+		}
+
+		private void storeLong(int field, long value) {
+			checkRow();
+
+			switch (definition.kinds[field]) {
+			case INTEGER:
+				numbers[field][row] = value;
+				break;
+			case FLOAT:
+				numbers[field][row] = Double.doubleToRawLongBits(value);
+				break;
+			default:
+				objects[field][row] = Long.valueOf(value);
+			}
+		}
+
+		@Override
+		public void clear() {
+			initRow(0);
+		}
+
+		@Override
+		public JCoMetaData getMetaData() {
+			return (JCoMetaData) definition.metaData;
+		}
+
+		@Override
+		public int getFieldCount() {
+			return definition.fields.size();
+		}
+
+		@Override
+		public Object getValue(int index) {
+			return object(index);
+		}
+
+		@Override
+		public Object getValue(String name) {
+			return getValue(definition.field(name));
+		}
+
+		@Override
+		public String getString(int index) {
+			checkRow();
+
+			switch (definition.kinds[index]) {
+			case INTEGER:
+				return Long.toString(numbers[index][row]);
+			case FLOAT:
+				return Double.toString(Double.longBitsToDouble(numbers[index][row]));
+			default:
+				Object value = objects[index][row];
+				return value == null ? null : new String(value.toString());
+			}
+		}
+
+		@Override
+		public String getString(String name) {
+			return getString(definition.field(name));
+		}
+
+		@Override
+		public int getInt(int index) {
+			return (int) getLong(index);
+		}
+
+		@Override
+		public int getInt(String name) {
+			return getInt(definition.field(name));
+		}
+
+		@Override
+		public long getLong(int index) {
+			checkRow();
+
+			switch (definition.kinds[index]) {
+			case INTEGER:
+				return numbers[index][row];
+			case FLOAT:
+				return (long) Double.longBitsToDouble(numbers[index][row]);
+			default:
+				return ((Number) objects[index][row]).longValue();
+			}
+		}
+
+		@Override
+		public long getLong(String name) {
+			return getLong(definition.field(name));
+		}
+
+		@Override
+		public double getDouble(int index) {
+			checkRow();
+
+			switch (definition.kinds[index]) {
+			case INTEGER:
+				return numbers[index][row];
+			case FLOAT:
+				return Double.longBitsToDouble(numbers[index][row]);
+			default:
+				return ((Number) objects[index][row]).doubleValue();
+			}
+		}
+
+		@Override
+		public double getDouble(String name) {
+			return getDouble(definition.field(name));
+		}
+
+		@Override
+		public BigDecimal getBigDecimal(int index) {
+			checkRow();
+
+			switch (definition.kinds[index]) {
+			case INTEGER:
+				return BigDecimal.valueOf(numbers[index][row]);
+			case FLOAT:
+				return BigDecimal.valueOf(Double
+						.longBitsToDouble(numbers[index][row]));
+			default:
+				Object value = objects[index][row];
+
+				if (value == null || value instanceof BigDecimal) {
+					return (BigDecimal) value;
+				}
+
+				return new BigDecimal(value.toString());
+			}
+		}
+
+		@Override
+		public BigDecimal getBigDecimal(String name) {
+			return getBigDecimal(definition.field(name));
+		}
+
+		@Override
+		public Date getDate(int index) {
+			Date date = (Date) object(index);
+			return date == null ? null : new Date(date.getTime());
+		}
+
+		@Override
+		public Date getDate(String name) {
+			return getDate(definition.field(name));
+		}
+
+		@Override
+		public Date getTime(int index) {
+			return getDate(index);
+		}
+
+		@Override
+		public Date getTime(String name) {
+			return getDate(definition.field(name));
+		}
+
+		@Override
+		public byte[] getByteArray(int index) {
+			byte[] value = (byte[]) object(index);
+			return value == null ? null : value.clone();
+		}
+
+		@Override
+		public byte[] getByteArray(String name) {
+			return getByteArray(definition.field(name));
+		}
+
+		@Override
+		public char[] getCharArray(int index) {
+			String value = getString(index);
+			return value == null ? null : value.toCharArray();
+		}
+
+		@Override
+		public char[] getCharArray(String name) {
+			return getCharArray(definition.field(name));
+		}
+
+		@Override
+		public JCoStructure getStructure(int index) {
+			return (JCoStructure) object(index);
+		}
+
+		@Override
+		public JCoStructure getStructure(String name) {
+			return getStructure(definition.field(name));
+		}
+
+		@Override
+		public JCoTable getTable(int index) {
+			return (JCoTable) object(index);
+		}
+
+		@Override
+		public JCoTable getTable(String name) {
+			return getTable(definition.field(name));
+		}
+
+		@Override
+		public void setValue(int index, Object value) {
+			store(index, value);
+		}
+
+		@Override
+		public void setValue(String name, Object value) {
+			store(definition.field(name), value);
+		}
+
+		@Override
+		public void setValue(int index, String value) {
+			store(index, value);
+		}
+
+		@Override
+		public void setValue(String name, String value) {
+			store(definition.field(name), value);
+		}
+
+		@Override
+		public void setValue(int index, int value) {
+			storeLong(index, value);
+		}
+
+		@Override
+		public void setValue(String name, int value) {
+			storeLong(definition.field(name), value);
+		}
+
+		@Override
+		public void setValue(int index, long value) {
+			storeLong(index, value);
+		}
+
+		@Override
+		public void setValue(String name, long value) {
+			storeLong(definition.field(name), value);
+		}
+
+		@Override
+		public void setValue(int index, short value) {
+			storeLong(index, value);
+		}
+
+		@Override
+		public void setValue(int index, byte value) {
+			storeLong(index, value);
+		}
+
+		@Override
+		public void setValue(int index, double value) {
+			checkRow();
+
+			if (definition.kinds[index] == OBJECT) {
+				objects[index][row] = Double.valueOf(value);
+			} else if (definition.kinds[index] == FLOAT) {
+				numbers[index][row] = Double.doubleToRawLongBits(value);
+			} else {
+				numbers[index][row] = (long) value;
+			}
+		}
+
+		@Override
+		public void setValue(String name, double value) {
+			setValue(definition.field(name), value);
+		}
+
+		@Override
+		public void setValue(int index, byte[] value) {
+			store(index, value);
+		}
+
+		@Override
+		public void setValue(String name, byte[] value) {
+			store(definition.field(name), value);
+		}
+
+		@Override
+		public void setValue(int index, char[] value) {
+			store(index, new String(value));
+		}
+
+		@Override
+		public void setValue(int index, char[] value, int offset, int length) {
+			store(index, new String(value, offset, length));
+		}
+
+		@Override
+		public String toString() {
+			return "InMemoryJCo" + definition.fields;
+		}
+
+		public void setValue(int index, char value) {
+			store(index, String.valueOf(value));
+		}
+
+		public void setValue(String name, char value) {
+			store(definition.field(name), String.valueOf(value));
+		}
+
+		public void setValue(int index, float value) {
+			setValue(index, (double) value);
+		}
+
+		public void setValue(String name, float value) {
+			setValue(definition.field(name), (double) value);
+		}
+
+		public void setValue(int index, BigDecimal value) {
+			store(index, value);
+		}
+
+		public void setValue(String name, BigDecimal value) {
+			store(definition.field(name), value);
+		}
+
+		public void setValue(int index, BigInteger value) {
+			store(index, value);
+		}
+
+		public void setValue(String name, BigInteger value) {
+			store(definition.field(name), value);
+		}
+
+		public void setValue(int index, Date value) {
+			store(index, value);
+		}
+
+		public void setValue(String name, Date value) {
+			store(definition.field(name), value);
+		}
+
+		public void setValue(int index, JCoStructure value) {
+			store(index, value);
+		}
+
+		public void setValue(String name, JCoStructure value) {
+			store(definition.field(name), value);
+		}
+
+		public void setValue(int index, JCoTable value) {
+			store(index, value);
+		}
+
+		public void setValue(String name, JCoTable value) {
+			store(definition.field(name), value);
+		}
+
+		public void setValue(int index, JCoAbapObject value) {
+			store(index, value);
+		}
+
+		public void setValue(String name, JCoAbapObject value) {
+			store(definition.field(name), value);
+		}
+
+		public void setValue(String name, short value) {
+			storeLong(definition.field(name), value);
+		}
+
+		public void setValue(String name, byte value) {
+			storeLong(definition.field(name), value);
+		}
+
+		public void setValue(String name, char[] value) {
+			store(definition.field(name), new String(value));
+		}
+
+		public void setValue(String name, char[] value, int offset, int length) {
+			store(definition.field(name), new String(value, offset, length));
+		}
+
+		public char getChar(int index) {
+			throw unsupported("getChar");
+		}
+
+		public char getChar(String name) {
+			throw unsupported("getChar");
+		}
+
+		public byte getByte(int index) {
+			throw unsupported("getByte");
+		}
+
+		public byte getByte(String name) {
+			throw unsupported("getByte");
+		}
+
+		public short getShort(int index) {
+			throw unsupported("getShort");
+		}
+
+		public short getShort(String name) {
+			throw unsupported("getShort");
+		}
+
+		public BigInteger getBigInteger(int index) {
+			throw unsupported("getBigInteger");
+		}
+
+		public BigInteger getBigInteger(String name) {
+			throw unsupported("getBigInteger");
+		}
+
+		public JCoAbapObject getAbapObject(int index) {
+			throw unsupported("getAbapObject");
+		}
+
+		public JCoAbapObject getAbapObject(String name) {
+			throw unsupported("getAbapObject");
+		}
+
+		public Reader getCharacterStream(int index) {
+			throw unsupported("getCharacterStream");
+		}
+
+		public Reader getCharacterStream(String name) {
+			throw unsupported("getCharacterStream");
+		}
+
+		public InputStream getBinaryStream(int index) {
+			throw unsupported("getBinaryStream");
+		}
+
+		public InputStream getBinaryStream(String name) {
+			throw unsupported("getBinaryStream");
+		}
+
+		public String getClassNameOfValue(int index) {
+			throw unsupported("getClassNameOfValue");
+		}
+
+		public String getClassNameOfValue(String name) {
+			throw unsupported("getClassNameOfValue");
+		}
+
+		public boolean isInitialized(int index) {
+			throw unsupported("isInitialized");
+		}
+
+		public boolean isInitialized(String name) {
+			throw unsupported("isInitialized");
+		}
+
+		public JCoField getField(int index) {
+			throw unsupported("getField");
+		}
+
+		public JCoField getField(String name) {
+			throw unsupported("getField");
+		}
+
+		public String toXML(int index) {
+			throw unsupported("toXML");
+		}
+
+		public String toXML(String name) {
+			throw unsupported("toXML");
+		}
+
+		public Object clone() {
+			throw unsupported("clone");
+		}
+
+		public int copyFrom(JCoRecord record) {
+			throw unsupported("copyFrom");
+		}
+
+		public JCoFieldIterator getFieldIterator() {
+			throw unsupported("getFieldIterator");
+		}
+
+		public Iterator<JCoField> iterator() {
+			throw unsupported("iterator");
+		}
+
+		public String toXML() {
+			throw unsupported("toXML");
+		}
+
+		public void writeXML(Writer writer) {
+			throw unsupported("writeXML");
+		}
+
+		public String toJSON() {
+			throw unsupported("toJSON");
+		}
+
+		public void toJSON(Writer writer) {
+			throw unsupported("toJSON");
+		}
+
+		public void fromJSON(Reader reader) {
+			throw unsupported("fromJSON");
+		}
+
+		public void fromJSON(String json) {
+			throw unsupported("fromJSON");
+		}
+	}
+
+	/**
+	 * Structure, one row always current
+	 */
+	private static class Structure extends Record implements JCoStructure {
+		private static final long serialVersionUID = 1L;
+
+		public Structure(Definition definition) {
+			super(definition, 1);
+			initRow(0);
+			size = 1;
+			row = 0;
+		}
+
+		@Override
+		public JCoRecordMetaData getRecordMetaData() {
+			return (JCoRecordMetaData) getMetaData();
+		}
+
+		public JCoRecordFieldIterator getRecordFieldIterator() {
+			throw unsupported("getRecordFieldIterator");
+		}
+	}
+
+	/**
+	 * Parameter list, one row always current and all parameters active
+	 */
+	private static class ParameterList extends Record implements
+			JCoParameterList {
+		private static final long serialVersionUID = 1L;
+
+		public ParameterList(Definition definition) {
+			super(definition, 1);
+			initRow(0);
+			size = 1;
+			row = 0;
+		}
+
+		@Override
+		public JCoListMetaData getListMetaData() {
+			return (JCoListMetaData) getMetaData();
+		}
+
+		@Override
+		public boolean isActive(int index) {
+			return true;
+		}
+
+		@Override
+		public boolean isActive(String name) {
+			return true;
+		}
+
+		public void setActive(int index, boolean active) {
+		}
+
+		@Override
+		public void setActive(String name, boolean active) {
+		}
+
+		public JCoParameterFieldIterator getParameterFieldIterator() {
+			throw unsupported("getParameterFieldIterator");
+		}
+	}
+
+	/**
+	 * Table, rows are kept in columns grown when rows are appended
+	 */
+	private static class Table extends Record implements JCoTable {
+		private static final long serialVersionUID = 1L;
+		private static final int INITIAL_CAPACITY = 8;
+
+		public Table(Definition definition) {
+			super(definition, INITIAL_CAPACITY);
+		}
+
+		/**
+		 * Tables lose all rows
+		 */
+		@Override
+		public void clear() {
+			deleteAllRows();
+		}
+
+		@Override
+		public JCoRecordMetaData getRecordMetaData() {
+			return (JCoRecordMetaData) getMetaData();
+		}
+
+		@Override
+		public void appendRow() {
+			ensureCapacity(size + 1);
+			initRow(size);
+			row = size++;
+		}
+
+		@Override
+		public void appendRows(int count) {
+			int first = size;
+
+			ensureCapacity(size + count);
+
+			for (int i = 0; i < count; i++) {
+				initRow(size++);
+			}
+
+			row = first;
+		}
+
+		@Override
+		public void deleteAllRows() {
+			size = 0;
+			row = -1;
+		}
+
+		@Override
+		public void ensureBufferCapacity(int rows) {
+			ensureCapacity(rows);
+		}
+
+		@Override
+		public void firstRow() {
+			row = size == 0 ? -1 : 0;
+		}
+
+		@Override
+		public boolean nextRow() {
+			if (row + 1 < size) {
+				row++;
+				return true;
+			}
+
+			return false;
+		}
+
+		@Override
+		public void setRow(int position) {
+			row = position;
+		}
+
+		@Override
+		public int getRow() {
+			return row;
+		}
+
+		@Override
+		public int getNumRows() {
+			return size;
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return size == 0;
+		}
+
+		public int getNumColumns() {
+			return getFieldCount();
+		}
+
+		public void lastRow() {
+			row = size - 1;
+		}
+
+		public boolean previousRow() {
+			if (row > 0) {
+				row--;
+				return true;
+			}
+
+			return false;
+		}
+
+		public boolean isFirstRow() {
+			return row == 0;
+		}
+
+		public boolean isLastRow() {
+			return row == size - 1;
+		}
+
+		public void deleteRow() {
+			throw unsupported("deleteRow");
+		}
+
+		public void deleteRow(int position) {
+			throw unsupported("deleteRow");
+		}
+
+		public void insertRow(int position) {
+			throw unsupported("insertRow");
+		}
+
+		public void trimToRows() {
+			throw unsupported("trimToRows");
+		}
+
+		public JCoRecordFieldIterator getRecordFieldIterator() {
+			throw unsupported("getRecordFieldIterator");
+		}
+	}
+
+	/**
+	 * Answer JCoRecordMetaData and JCoListMetaData methods of a definition
+	 */
+	private static class MetaData implements InvocationHandler {
+		private Definition definition;
+
+		public MetaData(Definition definition) {
+			this.definition = definition;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) {
+			switch (method.getName()) {
+			case "indexOf":
+				Integer position = definition.index.get(args[0]);
+				return position == null ? -1 : position;
+			case "getFieldCount":
+				return definition.fields.size();
+			case "getName":
+				return args == null ? "IN_MEMORY" : definition.fields.get(
+						(Integer) args[0]).getSapName();
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "equals":
+				return proxy == args[0];
+			case "toString":
+				return "InMemoryJCoMetaData" + definition.fields;
+			default:
+				throw new UnsupportedOperationException(method.getName());
+			}
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package br.com.lugaid.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import br.com.lugaid.business.Sap2JavaField;
+import br.com.lugaid.helper.StringHelper;
+
+/**
+ * Derivation of Java names from SAP names, the legacy regex based
+ * derivation against the one pass converter and the names kept per field.
+ *
+ * Each field is read as many times as the parameter template reads it.
+ *
+ * @author Emerson Rancoletta
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NameDerivationBenchmark {
+	/** Times the parameter template reads the names of one field */
+	private static final int READS_PER_FIELD = 12;
+
+	@Param({ "10000" })
+	private int fields;
+
+	private List<Sap2JavaField> model;
+
+	@Setup
+	public void setup() {
+		model = SyntheticModel.flat(fields);
+	}
+
+	@Benchmark
+	public void legacyDerivation(Blackhole bh) {
+		for (Sap2JavaField field : model) {
+			for (int i = 0; i < READS_PER_FIELD; i++) {
+				String name = StringHelper.smallizeFirstChar(legacyCamelCase(field
+						.getSapName()));
+				bh.consume(name);
+				bh.consume(StringHelper.captalizeFirstChar(name));
+			}
+		}
+	}
+
+	@Benchmark
+	public void onePassDerivation(Blackhole bh) {
+		for (Sap2JavaField field : model) {
+			for (int i = 0; i < READS_PER_FIELD; i++) {
+				String name = StringHelper.toCamelCase(field.getSapName(),
+						false);
+				bh.consume(name);
+				bh.consume(StringHelper.captalizeFirstChar(name));
+			}
+		}
+	}
+
+	@Benchmark
+	public void memoizedFieldNames(Blackhole bh) {
+		// New fields each invocation, so the first derivation is measured
+		for (Sap2JavaField field : SyntheticModel.copy(model)) {
+			for (int i = 0; i < READS_PER_FIELD; i++) {
+				bh.consume(field.getJavaAttributeName());
+				bh.consume(field.getGetterSetterName());
+			}
+		}
+	}
+
+	/**
+	 * Derivation used before the one pass converter
+	 */
+	private static String legacyCamelCase(String sapName) {
+		return StringHelper.titleize(sapName.replaceAll("[-_.]", " "))
+				.replace(" ", "");
+	}
+}
@@ -0,0 +1,41 @@
+package br.com.lugaid.benchmark;
+
+import java.io.Writer;
+
+/**
+ * Writer discarding all content, only the number of chars is kept so the
+ * output is not optimized away.
+ *
+ * @author Emerson Rancoletta
+ * @version 1.0
+ */
+public class NullWriter extends Writer {
+	private long written;
+
+	public long getWritten() {
+		return written;
+	}
+
+	@Override
+	public void write(char[] cbuf, int off, int len) {
+		written += len;
+	}
+
+	@Override
+	public void write(String str, int off, int len) {
+		written += len;
+	}
+
+	@Override
+	public void write(int c) {
+		written++;
+	}
+
+	@Override
+	public void flush() {
+	}
+
+	@Override
+	public void close() {
+	}
+}
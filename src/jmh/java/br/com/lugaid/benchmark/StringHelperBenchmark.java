@@ -0,0 +1,63 @@
+package br.com.lugaid.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import br.com.lugaid.helper.StringHelper;
+
+/**
+ * StringHelper functions over typical SAP names.
+ *
+ * @author Emerson Rancoletta
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringHelperBenchmark {
+	private String[] sapNames = { "MATNR", "SALES_ORDER_ITEM",
+			"/BIC/ZCUSTOMER", "E_RETURN_MESSAGE.TEXT", "BAPI-RETURN" };
+	private String[] javaNames = { "matnr", "salesOrderItem",
+			"bicZcustomer", "eReturnMessageText", "bapiReturn" };
+
+	@Benchmark
+	public void titleize(Blackhole bh) {
+		for (String name : sapNames) {
+			bh.consume(StringHelper.titleize(name));
+		}
+	}
+
+	@Benchmark
+	public void toCamelCase(Blackhole bh) {
+		for (String name : sapNames) {
+			bh.consume(StringHelper.toCamelCase(name, false));
+		}
+	}
+
+	@Benchmark
+	public void smallizeFirstChar(Blackhole bh) {
+		for (String name : javaNames) {
+			bh.consume(StringHelper.smallizeFirstChar(name));
+		}
+	}
+
+	@Benchmark
+	public void captalizeFirstChar(Blackhole bh) {
+		for (String name : javaNames) {
+			bh.consume(StringHelper.captalizeFirstChar(name));
+		}
+	}
+}
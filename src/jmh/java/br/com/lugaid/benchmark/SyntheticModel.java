@@ -0,0 +1,123 @@
+package br.com.lugaid.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import br.com.lugaid.business.Sap2JavaField;
+
+/**
+ * Synthetic function module models used by benchmarks, no SAP system is
+ * needed.
+ *
+ * @author Emerson Rancoletta
+ * @version 1.0
+ */
+public class SyntheticModel {
+	private static final String[] TYPES = { "CHAR", "NUM", "DATE", "BCD",
+			"INT", "TIME", "STRING" };
+
+	/** Shapes of model used by benchmark parameters */
+	public static final String FLAT = "flat";
+	public static final String WIDE = "wide";
+	public static final String NESTED = "nested";
+
+	private SyntheticModel() {
+	}
+
+	/**
+	 * Model of a named shape, flat has 50 fields, wide has 2000 fields and
+	 * nested has 8 levels of tables with 20 fields each
+	 *
+	 * @param shape
+	 *            Shape name
+	 * @return Fields
+	 */
+	public static List<Sap2JavaField> shape(String shape) {
+		switch (shape) {
+		case FLAT:
+			return flat(50);
+		case WIDE:
+			return flat(2000);
+		case NESTED:
+			return nested(8, 20);
+		default:
+			throw new IllegalArgumentException("Unknown model shape " + shape);
+		}
+	}
+
+	/**
+	 * Model with final fields only, of all supported types
+	 *
+	 * @param fields
+	 *            Number of fields
+	 * @return Fields
+	 */
+	public static List<Sap2JavaField> flat(int fields) {
+		List<Sap2JavaField> list = new ArrayList<>(fields);
+
+		for (int i = 0; i < fields; i++) {
+			list.add(finalField("FIELD_NAME_" + i, i));
+		}
+
+		return list;
+	}
+
+	/**
+	 * Model with a TABLE nested into another TABLE until the informed depth,
+	 * each level with the informed number of final fields
+	 *
+	 * @param depth
+	 *            Nesting levels
+	 * @param fieldsPerLevel
+	 *            Final fields of each level
+	 * @return Fields
+	 */
+	public static List<Sap2JavaField> nested(int depth, int fieldsPerLevel) {
+		List<Sap2JavaField> list = flat(fieldsPerLevel);
+
+		if (depth > 0) {
+			list.add(new Sap2JavaField("LEVEL_" + depth + "_ITEMS",
+					"Nested table", "TABLE", 0, 0, nested(depth - 1,
+							fieldsPerLevel)));
+		}
+
+		return list;
+	}
+
+	/**
+	 * Deep copy of a model, fields of the copy have no Java names derived yet
+	 * like the fields mapped from SAP
+	 *
+	 * @param fields
+	 *            Fields
+	 * @return Copy of fields
+	 */
+	public static List<Sap2JavaField> copy(List<Sap2JavaField> fields) {
+		List<Sap2JavaField> list = new ArrayList<>(fields.size());
+
+		for (Sap2JavaField field : fields) {
+			if (field.isFinalLevel()) {
+				list.add(new Sap2JavaField(field.getSapName(), field
+						.getSapDescription(), field.getSapType(), field
+						.getSapLength(), field.getSapDecimals()));
+			} else {
+				list.add(new Sap2JavaField(field.getSapName(), field
+						.getSapDescription(), field.getSapType(), field
+						.getSapLength(), field.getSapDecimals(), copy(field
+						.getListSubField())));
+			}
+		}
+
+		return list;
+	}
+
+	/**
+	 * Field of type chosen by position
+	 */
+	private static Sap2JavaField finalField(String name, int position) {
+		String type = TYPES[position % TYPES.length];
+		int decimals = type.equals("BCD") ? 2 : 0;
+
+		return new Sap2JavaField(name, "Field " + position, type, 10, decimals);
+	}
+}
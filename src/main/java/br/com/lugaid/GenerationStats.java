@@ -0,0 +1,71 @@
+package br.com.lugaid;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import br.com.lugaid.helper.GeneratedFile.Result;
+
+/**
+ * Counters of generated files, shared by all function modules of a run.
+ *
+ * @author Emerson Rancoletta
+ * @version 1.0
+ */
+public class GenerationStats {
+	private AtomicInteger created = new AtomicInteger();
+	private AtomicInteger updated = new AtomicInteger();
+	private AtomicInteger unchanged = new AtomicInteger();
+	private AtomicInteger skipped = new AtomicInteger();
+
+	/**
+	 * Count a file rendered
+	 *
+	 * @param result
+	 *            Result of writing the file
+	 */
+	public void count(Result result) {
+		switch (result) {
+		case CREATED:
+			created.incrementAndGet();
+			break;
+		case UPDATED:
+			updated.incrementAndGet();
+			break;
+		case UNCHANGED:
+			unchanged.incrementAndGet();
+			break;
+		}
+	}
+
+	/**
+	 * Count files not rendered because the fingerprint did not change
+	 *
+	 * @param files
+	 *            Number of files
+	 */
+	public void countSkipped(int files) {
+		skipped.addAndGet(files);
+	}
+
+	public int getCreated() {
+		return created.get();
+	}
+
+	public int getUpdated() {
+		return updated.get();
+	}
+
+	public int getUnchanged() {
+		return unchanged.get();
+	}
+
+	public int getSkipped() {
+		return skipped.get();
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+				"%d files created, %d updated, %d unchanged, %d skipped.",
+				getCreated(), getUpdated(), getUnchanged(), getSkipped());
+	}
+}
@@ -0,0 +1,304 @@
+package br.com.lugaid;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import br.com.lugaid.SapFm2JavaClasses.Artifact;
+
+/**
+ * Time spent on each phase of the generation, per function module and for the
+ * whole run, shared by all function modules of a run. Phases of one function
+ * module may be timed by many threads at the same time.
+ *
+ * @author Emerson Rancoletta
+ * @version 1.0
+ */
+public class GenerationTimings {
+	/**
+	 * Phases of the generation
+	 */
+	public enum Phase {
+		CONNECT("connect"), METADATA_FETCH("metadataFetch"), MODEL_BUILD(
+				"modelBuild"), RENDER("render"), WRITE("write");
+
+		private String jsonName;
+
+		private Phase(String jsonName) {
+			this.jsonName = jsonName;
+		}
+
+		public String getJsonName() {
+			return jsonName;
+		}
+	}
+
+	private long startMillis = System.currentTimeMillis();
+	private AtomicLong connectNanos = new AtomicLong();
+	private ConcurrentMap<String, FunctionTimings> functions = new ConcurrentHashMap<>();
+
+	/**
+	 * Add time spent connecting to SAP
+	 *
+	 * @param nanos
+	 *            Elapsed time
+	 */
+	public void addConnect(long nanos) {
+		connectNanos.addAndGet(nanos);
+	}
+
+	public long getConnectNanos() {
+		return connectNanos.get();
+	}
+
+	/**
+	 * Timings of a function module, created on first use
+	 *
+	 * @param functionMod
+	 *            SAP Function Module name
+	 * @return Timings of the function module
+	 */
+	public FunctionTimings getFunction(String functionMod) {
+		FunctionTimings timings = functions.get(functionMod);
+
+		if (timings == null) {
+			FunctionTimings newTimings = new FunctionTimings(functionMod);
+
+			timings = functions.putIfAbsent(functionMod, newTimings);
+			if (timings == null) {
+				timings = newTimings;
+			}
+		}
+
+		return timings;
+	}
+
+	/**
+	 * Time spent on a phase by all function modules, connect is counted once
+	 * for the run
+	 *
+	 * @param phase
+	 *            Generation phase
+	 * @return Elapsed time
+	 */
+	public long getTotalNanos(Phase phase) {
+		long total = phase == Phase.CONNECT ? connectNanos.get() : 0;
+
+		for (FunctionTimings timings : functions.values()) {
+			total += timings.getNanos(phase);
+		}
+
+		return total;
+	}
+
+	/**
+	 * Write the timings of the run as JSON
+	 *
+	 * @param report
+	 *            JSON file
+	 * @param totalNanos
+	 *            Elapsed time of the run
+	 * @param options
+	 *            Description of the generator options
+	 * @throws IOException
+	 *             Error writting file
+	 */
+	public void writeReport(Path report, long totalNanos, String options)
+			throws IOException {
+		Path parent = report.toAbsolutePath().getParent();
+
+		if (parent != null) {
+			Files.createDirectories(parent);
+		}
+
+		Files.write(report,
+				toJson(totalNanos, options).getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Timings of the run as JSON, with each function module and the totals of
+	 * each phase
+	 */
+	String toJson(long totalNanos, String options) {
+		SimpleDateFormat format = new SimpleDateFormat(
+				"yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", Locale.ROOT);
+		format.setTimeZone(TimeZone.getTimeZone("UTC"));
+
+		List<FunctionTimings> sorted = new ArrayList<>(functions.values());
+		StringBuilder json = new StringBuilder();
+
+		Collections.sort(sorted, new Comparator<FunctionTimings>() {
+			@Override
+			public int compare(FunctionTimings first, FunctionTimings second) {
+				return first.functionMod.compareTo(second.functionMod);
+			}
+		});
+
+		json.append("{\n");
+		json.append("  \"startedAt\": ")
+				.append(quote(format.format(new Date(startMillis))))
+				.append(",\n");
+		json.append("  \"options\": ").append(quote(options)).append(",\n");
+		json.append("  \"totalMs\": ").append(millis(totalNanos))
+				.append(",\n");
+		json.append("  \"phasesMs\": ");
+		appendPhases(json, null);
+		json.append(",\n");
+		json.append("  \"functionModules\": [");
+
+		for (int i = 0; i < sorted.size(); i++) {
+			FunctionTimings timings = sorted.get(i);
+
+			json.append(i == 0 ? "\n" : ",\n");
+			json.append("    {\"functionModule\": ")
+					.append(quote(timings.functionMod))
+					.append(", \"phasesMs\": ");
+			appendPhases(json, timings);
+			json.append(", \"artifactsMs\": {");
+
+			boolean first = true;
+			for (Artifact artifact : Artifact.values()) {
+				int index = artifact.ordinal();
+
+				if (timings.renderNanos.get(index) == 0
+						&& timings.writeNanos.get(index) == 0) {
+					continue;
+				}
+
+				json.append(first ? "" : ", ").append(quote(artifact.name()))
+						.append(": {\"render\": ")
+						.append(millis(timings.renderNanos.get(index)))
+						.append(", \"write\": ")
+						.append(millis(timings.writeNanos.get(index)))
+						.append("}");
+				first = false;
+			}
+
+			json.append("}}");
+		}
+
+		json.append(sorted.isEmpty() ? "]\n" : "\n  ]\n");
+		json.append("}\n");
+
+		return json.toString();
+	}
+
+	/**
+	 * Append each phase of a function module, or the totals when timings is
+	 * null
+	 */
+	private void appendPhases(StringBuilder json, FunctionTimings timings) {
+		json.append("{");
+
+		for (Phase phase : Phase.values()) {
+			long nanos = timings == null ? getTotalNanos(phase) : timings
+					.getNanos(phase);
+
+			json.append(phase.ordinal() == 0 ? "" : ", ")
+					.append(quote(phase.getJsonName())).append(": ")
+					.append(millis(nanos));
+		}
+
+		json.append("}");
+	}
+
+	private static String millis(long nanos) {
+		return String.format(Locale.ROOT, "%.3f", nanos / 1000000.0);
+	}
+
+	private static String quote(String value) {
+		StringBuilder quoted = new StringBuilder("\"");
+
+		for (char c : String.valueOf(value).toCharArray()) {
+			if (c == '"' || c == '\\') {
+				quoted.append('\\').append(c);
+			} else if (c < ' ') {
+				quoted.append(String.format("\\u%04x", (int) c));
+			} else {
+				quoted.append(c);
+			}
+		}
+
+		return quoted.append('"').toString();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("Phases:");
+
+		for (Phase phase : Phase.values()) {
+			sb.append(phase.ordinal() == 0 ? " " : ", ")
+					.append(phase.getJsonName()).append(' ')
+					.append(getTotalNanos(phase) / 1000000L).append(" ms");
+		}
+
+		return sb.append('.').toString();
+	}
+
+	/**
+	 * Timings of one function module, render and write are also kept per
+	 * artifact
+	 */
+	public static class FunctionTimings {
+		private String functionMod;
+		private AtomicLongArray phaseNanos = new AtomicLongArray(
+				Phase.values().length);
+		private AtomicLongArray renderNanos = new AtomicLongArray(
+				Artifact.values().length);
+		private AtomicLongArray writeNanos = new AtomicLongArray(
+				Artifact.values().length);
+
+		private FunctionTimings(String functionMod) {
+			this.functionMod = functionMod;
+		}
+
+		public String getFunctionMod() {
+			return functionMod;
+		}
+
+		/**
+		 * Add time spent on a phase
+		 *
+		 * @param phase
+		 *            Generation phase
+		 * @param nanos
+		 *            Elapsed time
+		 */
+		public void add(Phase phase, long nanos) {
+			phaseNanos.addAndGet(phase.ordinal(), nanos);
+		}
+
+		/**
+		 * Add time spent rendering an artifact
+		 */
+		void addRender(Artifact artifact, long nanos) {
+			renderNanos.addAndGet(artifact.ordinal(), nanos);
+			add(Phase.RENDER, nanos);
+		}
+
+		/**
+		 * Add time spent writing the file of an artifact
+		 */
+		void addWrite(Artifact artifact, long nanos) {
+			writeNanos.addAndGet(artifact.ordinal(), nanos);
+			add(Phase.WRITE, nanos);
+		}
+
+		public long getNanos(Phase phase) {
+			return phaseNanos.get(phase.ordinal());
+		}
+	}
+}
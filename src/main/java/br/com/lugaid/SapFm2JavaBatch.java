@@ -0,0 +1,428 @@
+package br.com.lugaid;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sap.conn.jco.JCoDestination;
+import com.sap.conn.jco.JCoException;
+
+import br.com.lugaid.business.CachedMetadataRepository;
+import br.com.lugaid.business.CachedMetadataRepository.EntryStatus;
+import br.com.lugaid.business.CachedMetadataRepository.RefreshMode;
+import br.com.lugaid.business.GeneratorOptions;
+import br.com.lugaid.business.JCoMetadataRepository;
+import br.com.lugaid.business.MetadataRepository;
+import br.com.lugaid.business.SnapshotMetadataRepository;
+import br.com.lugaid.business.TemplateRegistry;
+
+/**
+ * Non interactive generation of many function modules in one run, all of them
+ * generated over the same SAP connection and repository.
+ *
+ * The manifest is a text file with one entry per line in the format
+ * mainClass;functionModule;outputPath, blank lines and lines starting with #
+ * are ignored.
+ *
+ * With parallelism greater than one the generation runs on
+ * {@link SapFm2JavaParallel}. When a snapshot path is informed the metadata
+ * is read from snapshots without connecting to SAP, or saved as snapshots when
+ * save snapshot is set. When a cache path is informed the metadata read from
+ * SAP is kept in a {@link CachedMetadataRepository}.
+ *
+ * @author Emerson Rancoletta
+ * @version 1.0
+ */
+public class SapFm2JavaBatch {
+	private static Logger logger = LoggerFactory
+			.getLogger(SapFm2JavaBatch.class);
+	private static final String SEPARATOR = ";";
+	private static final String COMMENT = "#";
+
+	private List<BatchEntry> entries;
+	private int parallelism = 1;
+	private Path snapshotPath;
+	private boolean saveSnapshot;
+	private Path cachePath;
+	private long cacheTtlMillis = 24L * 60L * 60L * 1000L;
+	private RefreshMode cacheRefreshMode = RefreshMode.STALE;
+	private CachedMetadataRepository cache;
+	private boolean incremental;
+	private GeneratorOptions options = new GeneratorOptions();
+	private GenerationStats stats;
+	private GenerationTimings timings;
+	private Path reportPath;
+
+	/**
+	 * Constructor
+	 *
+	 * @param entries
+	 *            Function modules to be generated
+	 */
+	public SapFm2JavaBatch(List<BatchEntry> entries) {
+		this.entries = entries;
+	}
+
+	public List<BatchEntry> getEntries() {
+		return entries;
+	}
+
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	public void setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
+
+	public Path getSnapshotPath() {
+		return snapshotPath;
+	}
+
+	public void setSnapshotPath(Path snapshotPath) {
+		this.snapshotPath = snapshotPath;
+	}
+
+	public boolean isSaveSnapshot() {
+		return saveSnapshot;
+	}
+
+	public void setSaveSnapshot(boolean saveSnapshot) {
+		this.saveSnapshot = saveSnapshot;
+	}
+
+	public boolean isIncremental() {
+		return incremental;
+	}
+
+	public void setIncremental(boolean incremental) {
+		this.incremental = incremental;
+	}
+
+	public GeneratorOptions getOptions() {
+		return options;
+	}
+
+	public void setOptions(GeneratorOptions options) {
+		this.options = options;
+	}
+
+	public Path getReportPath() {
+		return reportPath;
+	}
+
+	/**
+	 * File where the JSON report with the time of each generation phase is
+	 * written at the end of the run, no report is written when null
+	 *
+	 * @param reportPath
+	 *            Path of the report
+	 */
+	public void setReportPath(Path reportPath) {
+		this.reportPath = reportPath;
+	}
+
+	public Path getCachePath() {
+		return cachePath;
+	}
+
+	public void setCachePath(Path cachePath) {
+		this.cachePath = cachePath;
+	}
+
+	public long getCacheTtlMillis() {
+		return cacheTtlMillis;
+	}
+
+	public void setCacheTtlMillis(long cacheTtlMillis) {
+		this.cacheTtlMillis = cacheTtlMillis;
+	}
+
+	public RefreshMode getCacheRefreshMode() {
+		return cacheRefreshMode;
+	}
+
+	public void setCacheRefreshMode(RefreshMode cacheRefreshMode) {
+		this.cacheRefreshMode = cacheRefreshMode;
+	}
+
+	/**
+	 * Read manifest file
+	 *
+	 * @param manifest
+	 *            Path of manifest file
+	 * @return Batch with all manifest entries
+	 * @throws IOException
+	 *             Error reading manifest
+	 */
+	public static SapFm2JavaBatch readManifest(Path manifest)
+			throws IOException {
+		List<BatchEntry> entries = new ArrayList<>();
+		int lineNumber = 0;
+
+		for (String line : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+			lineNumber++;
+			line = line.trim();
+
+			if (line.isEmpty() || line.startsWith(COMMENT)) {
+				continue;
+			}
+
+			String[] columns = line.split(SEPARATOR);
+
+			if (columns.length != 3
+					|| !columns[0].trim().matches(
+							SapFm2JavaClassMain.MAIN_CLASS_PAT)
+					|| columns[1].trim().isEmpty()
+					|| columns[2].trim().isEmpty()) {
+				throw new IllegalArgumentException(String.format(
+						"Invalid manifest line %d: %s", lineNumber, line));
+			}
+
+			entries.add(new BatchEntry(columns[0].trim(), columns[1].trim()
+					.toUpperCase(), FileSystems.getDefault().getPath(
+					columns[2].trim())));
+		}
+
+		return new SapFm2JavaBatch(entries);
+	}
+
+	/**
+	 * Generate classes for all entries using one connection to SAP, or no
+	 * connection when generating from snapshots
+	 *
+	 * @return true when all entries were generated
+	 */
+	public boolean generateClasses() {
+		logger.info("Starting batch generation of {} FMs.", entries.size());
+
+		long batchStart = System.nanoTime();
+
+		stats = new GenerationStats();
+		timings = new GenerationTimings();
+
+		TemplateRegistry.preload();
+
+		MetadataRepository repository;
+		int lookupConcurrency = parallelism;
+
+		if (snapshotPath != null && !saveSnapshot) {
+			repository = new SnapshotMetadataRepository(snapshotPath);
+		} else if (cachePath != null && cacheRefreshMode == RefreshMode.NEVER) {
+			cache = new CachedMetadataRepository(cachePath, null,
+					cacheTtlMillis);
+			cache.setRefreshMode(cacheRefreshMode);
+			repository = cache;
+		} else {
+			long connectStart = System.nanoTime();
+			JCoDestination destination = SapFm2JavaClasses
+					.createJCoDestination();
+
+			try {
+				repository = new JCoMetadataRepository(
+						destination.getRepository());
+				timings.addConnect(System.nanoTime() - connectStart);
+			} catch (JCoException e) {
+				logger.error("Error on get SAP repository.");
+				logger.debug("Stack trace ", e);
+				throw new IllegalStateException("Exiting system.", e);
+			}
+
+			lookupConcurrency = SapFm2JavaParallel.lookupConcurrency(
+					destination, parallelism);
+
+			if (cachePath != null) {
+				cache = new CachedMetadataRepository(cachePath, repository,
+						cacheTtlMillis);
+				cache.setRefreshMode(cacheRefreshMode);
+				repository = cache;
+			}
+
+			if (saveSnapshot) {
+				repository = new SnapshotMetadataRepository(snapshotPath,
+						repository);
+			}
+		}
+
+		boolean success;
+
+		if (parallelism > 1) {
+			SapFm2JavaParallel parallel = new SapFm2JavaParallel(repository,
+					lookupConcurrency, Runtime.getRuntime()
+							.availableProcessors());
+			parallel.setOptions(options);
+			parallel.setIncremental(incremental);
+			parallel.setStats(stats);
+			parallel.setTimings(timings);
+			success = parallel.generateClasses(entries);
+		} else {
+			success = generateSequential(repository);
+		}
+
+		long totalNanos = System.nanoTime() - batchStart;
+
+		printSummary(totalNanos);
+		writeReport(totalNanos);
+
+		return success;
+	}
+
+	/**
+	 * Generate entries one after other
+	 */
+	private boolean generateSequential(MetadataRepository repository) {
+		boolean success = true;
+
+		for (BatchEntry entry : entries) {
+			long start = System.nanoTime();
+
+			try {
+				Files.createDirectories(entry.getPath());
+
+				SapFm2JavaClasses sapfm = new SapFm2JavaClasses(
+						entry.getMainClass(), entry.getFunctionMod(),
+						entry.getPath(), repository);
+				sapfm.setOptions(options);
+				sapfm.setIncremental(incremental);
+				sapfm.setStats(stats);
+				sapfm.setTimings(timings);
+				sapfm.generateClasses();
+				entry.setSuccess(!sapfm.isFailed());
+				success &= entry.isSuccess();
+			} catch (IOException | RuntimeException e) {
+				logger.error("Error generating classes for {} FM.",
+						entry.getFunctionMod());
+				logger.debug("Stack trace ", e);
+				entry.setSuccess(false);
+				success = false;
+			}
+
+			entry.setElapsedNanos(System.nanoTime() - start);
+		}
+
+		return success;
+	}
+
+	/**
+	 * Print timings per FM and total, with the count of created, updated,
+	 * unchanged and skipped files.
+	 */
+	private void printSummary(long totalNanos) {
+		int failed = 0;
+
+		System.out.println("==============================================================");
+		System.out.println(String.format("%-30s %-20s %10s %s", "FM",
+				"Main class", "Time (ms)", "Status"));
+
+		for (BatchEntry entry : entries) {
+			if (!entry.isSuccess()) {
+				failed++;
+			}
+
+			System.out.println(String.format("%-30s %-20s %10d %s",
+					entry.getFunctionMod(), entry.getMainClass(),
+					toMillis(entry.getElapsedNanos()),
+					entry.isSuccess() ? "OK" : "ERROR"));
+		}
+
+		System.out.println("==============================================================");
+		System.out.println(String.format(
+				"Generated %d FMs, %d with error, total time %d ms.",
+				entries.size() - failed, failed, toMillis(totalNanos)));
+		System.out.println(stats);
+		System.out.println(timings);
+
+		if (cache != null) {
+			int[] statusCount = new int[EntryStatus.values().length];
+
+			for (BatchEntry entry : entries) {
+				EntryStatus status = cache.getEntryStatus(entry
+						.getFunctionMod());
+
+				if (status != null) {
+					statusCount[status.ordinal()]++;
+				}
+			}
+
+			System.out.println(String.format(
+					"Metadata cache: %d cached, %d unchanged, %d changed, %d new.",
+					statusCount[EntryStatus.CACHED.ordinal()],
+					statusCount[EntryStatus.UNCHANGED.ordinal()],
+					statusCount[EntryStatus.CHANGED.ordinal()],
+					statusCount[EntryStatus.NEW.ordinal()]));
+		}
+	}
+
+	/**
+	 * Write the JSON report of phase timings when a report path is set
+	 */
+	private void writeReport(long totalNanos) {
+		if (reportPath == null) {
+			return;
+		}
+
+		try {
+			timings.writeReport(reportPath, totalNanos, options.toString());
+			logger.info("Timings report written to {}.", reportPath);
+		} catch (IOException e) {
+			logger.error("Error writting timings report {}.", reportPath);
+			logger.debug("Stack trace ", e);
+		}
+	}
+
+	private static long toMillis(long nanos) {
+		return nanos / 1000000L;
+	}
+
+	/**
+	 * One line of the manifest
+	 */
+	public static class BatchEntry {
+		private String mainClass;
+		private String functionMod;
+		private Path path;
+		private boolean success;
+		private long elapsedNanos;
+
+		public BatchEntry(String mainClass, String functionMod, Path path) {
+			this.mainClass = mainClass;
+			this.functionMod = functionMod;
+			this.path = path;
+		}
+
+		public String getMainClass() {
+			return mainClass;
+		}
+
+		public String getFunctionMod() {
+			return functionMod;
+		}
+
+		public Path getPath() {
+			return path;
+		}
+
+		public boolean isSuccess() {
+			return success;
+		}
+
+		public void setSuccess(boolean success) {
+			this.success = success;
+		}
+
+		public long getElapsedNanos() {
+			return elapsedNanos;
+		}
+
+		public void setElapsedNanos(long elapsedNanos) {
+			this.elapsedNanos = elapsedNanos;
+		}
+	}
+}
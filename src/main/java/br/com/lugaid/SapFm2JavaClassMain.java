@@ -1,20 +1,50 @@
 package br.com.lugaid;
 
+import java.io.IOException;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.util.Scanner;
 
+import br.com.lugaid.business.CachedMetadataRepository.RefreshMode;
+import br.com.lugaid.business.GeneratorOptions.DateMapping;
+
 /**
  * This class is to write a console to input configuration to convert the SAP
  * function module parameters to classes.
  * 
+ * Run with -batch manifestFile [options] to generate many function modules
+ * without interaction, see {@link SapFm2JavaBatch} for the manifest format.
+ * 
  * @author Emerson Rancoletta
  * @version 1.0
  */
 public class SapFm2JavaClassMain {
-	private static final String MAIN_CLASS_PAT = "^([A-Z])+([a-zA-Z0-9])*$";
+	static final String MAIN_CLASS_PAT = "^([A-Z])+([a-zA-Z0-9])*$";
+	private static final String PACKAGE_PAT = "^[a-z_][a-zA-Z0-9_]*(\\.[a-z_][a-zA-Z0-9_]*)*$";
+	private static final String BATCH_OPTION = "-batch";
+	private static final String PARALLEL_OPTION = "-parallel";
+	private static final String SNAPSHOT_OPTION = "-snapshot";
+	private static final String SAVE_SNAPSHOT_OPTION = "-save-snapshot";
+	private static final String INCREMENTAL_OPTION = "-incremental";
+	private static final String CACHE_OPTION = "-cache";
+	private static final String CACHE_TTL_OPTION = "-cache-ttl";
+	private static final String CACHE_REFRESH_OPTION = "-cache-refresh";
+	private static final String PACKAGE_OPTION = "-package";
+	private static final String PRIMITIVE_TYPES_OPTION = "-primitive-types";
+	private static final String DATE_MAPPING_OPTION = "-date-mapping";
+	private static final String COLUMNAR_TABLES_OPTION = "-columnar-tables";
+	private static final String ASYNC_CALLERS_OPTION = "-async-callers";
+	private static final String INSTRUMENTATION_OPTION = "-instrumentation";
+	private static final String BINARY_CODECS_OPTION = "-binary-codecs";
+	private static final String JSON_CODECS_OPTION = "-json-codecs";
+	private static final String REPORT_OPTION = "-report";
 
 	public static void main(String[] args) {
+		if (args.length > 0) {
+			runBatch(args);
+			return;
+		}
+
 		Scanner in = new Scanner(System.in);
 
 		String mainClass = "";
@@ -70,4 +100,176 @@ public class SapFm2JavaClassMain {
 		sapfm.generateClasses();
 	}
 
+	/**
+	 * Generate classes for all function modules of a manifest file.
+	 */
+	private static void runBatch(String[] args) {
+		if (args.length < 2 || !args[0].equals(BATCH_OPTION)) {
+			printBatchUsage();
+		}
+
+		try {
+			SapFm2JavaBatch batch = SapFm2JavaBatch.readManifest(FileSystems
+					.getDefault().getPath(args[1]));
+
+			int i = 2;
+
+			while (i < args.length) {
+				String option = args[i++];
+				String value = null;
+
+				if (!isFlag(option)) {
+					if (i == args.length) {
+						printBatchUsage();
+					}
+
+					value = args[i++];
+				}
+
+				switch (option) {
+				case INCREMENTAL_OPTION:
+					batch.setIncremental(true);
+					break;
+				case PRIMITIVE_TYPES_OPTION:
+					batch.getOptions().setPrimitiveTypes(true);
+					break;
+				case COLUMNAR_TABLES_OPTION:
+					batch.getOptions().setColumnarTables(true);
+					break;
+				case ASYNC_CALLERS_OPTION:
+					batch.getOptions().setAsyncCallers(true);
+					break;
+				case INSTRUMENTATION_OPTION:
+					batch.getOptions().setInstrumentation(true);
+					break;
+				case BINARY_CODECS_OPTION:
+					batch.getOptions().setBinaryCodecs(true);
+					break;
+				case JSON_CODECS_OPTION:
+					batch.getOptions().setJsonCodecs(true);
+					break;
+				case DATE_MAPPING_OPTION:
+					if (!value.matches("^(date|java-time|epoch)$")) {
+						printBatchUsage();
+					}
+
+					batch.getOptions().setDateMapping(
+							DateMapping.valueOf(value.replace('-', '_')
+									.toUpperCase()));
+					break;
+				case PARALLEL_OPTION:
+					if (!value.matches("^[1-9][0-9]*$")) {
+						printBatchUsage();
+					}
+
+					batch.setParallelism(Integer.parseInt(value));
+					break;
+				case SNAPSHOT_OPTION:
+					batch.setSnapshotPath(FileSystems.getDefault().getPath(
+							value));
+					break;
+				case SAVE_SNAPSHOT_OPTION:
+					batch.setSnapshotPath(FileSystems.getDefault().getPath(
+							value));
+					batch.setSaveSnapshot(true);
+					break;
+				case REPORT_OPTION:
+					batch.setReportPath(FileSystems.getDefault().getPath(
+							value));
+					break;
+				case CACHE_OPTION:
+					batch.setCachePath(FileSystems.getDefault().getPath(
+							value));
+					break;
+				case CACHE_TTL_OPTION:
+					if (!value.matches("^[0-9]+$")) {
+						printBatchUsage();
+					}
+
+					batch.setCacheTtlMillis(Long.parseLong(value) * 60000L);
+					break;
+				case CACHE_REFRESH_OPTION:
+					if (!value.matches("^(stale|all|never)$")) {
+						printBatchUsage();
+					}
+
+					batch.setCacheRefreshMode(RefreshMode.valueOf(value
+							.toUpperCase()));
+					break;
+				case PACKAGE_OPTION:
+					if (!value.matches(PACKAGE_PAT)) {
+						printBatchUsage();
+					}
+
+					batch.getOptions().setPackageName(value);
+					break;
+				default:
+					printBatchUsage();
+					break;
+				}
+			}
+
+			if (!batch.generateClasses()) {
+				System.exit(1);
+			}
+		} catch (IOException e) {
+			System.out.println(String.format("Error reading manifest %s.",
+					args[1]));
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Options without value
+	 */
+	private static boolean isFlag(String option) {
+		return option.equals(INCREMENTAL_OPTION)
+				|| option.equals(PRIMITIVE_TYPES_OPTION)
+				|| option.equals(COLUMNAR_TABLES_OPTION)
+				|| option.equals(ASYNC_CALLERS_OPTION)
+				|| option.equals(INSTRUMENTATION_OPTION)
+				|| option.equals(BINARY_CODECS_OPTION)
+				|| option.equals(JSON_CODECS_OPTION);
+	}
+
+	private static void printBatchUsage() {
+		System.out.println(String.format("Usage: %s manifestFile [options]",
+				BATCH_OPTION));
+		printOption(PARALLEL_OPTION + " n", "concurrent SAP lookups");
+		printOption(INCREMENTAL_OPTION,
+				"skip function modules not changed since last run");
+		printOption(SNAPSHOT_OPTION + " dir",
+				"generate from snapshots, without SAP");
+		printOption(SAVE_SNAPSHOT_OPTION + " dir",
+				"save snapshots of metadata read from SAP");
+		printOption(REPORT_OPTION + " file",
+				"write JSON report with the time of each phase");
+		printOption(CACHE_OPTION + " dir",
+				"keep metadata read from SAP in a local cache");
+		printOption(CACHE_TTL_OPTION + " minutes",
+				"time to live of cache entries, default 1440");
+		printOption(CACHE_REFRESH_OPTION + " stale|all|never",
+				"which cache entries are fetched from SAP");
+		printOption(PACKAGE_OPTION + " name",
+				"package of generated classes, written in its folder");
+		printOption(PRIMITIVE_TYPES_OPTION,
+				"generate INT as int and NUM as long");
+		printOption(DATE_MAPPING_OPTION + " date|java-time|epoch",
+				"Java type of DATE and TIME fields");
+		printOption(COLUMNAR_TABLES_OPTION,
+				"generate TABLE rows as arrays of columns");
+		printOption(ASYNC_CALLERS_OPTION,
+				"generate callFunctionModuleAsync, needs Java 8");
+		printOption(INSTRUMENTATION_OPTION,
+				"record call metrics into CallMetrics class");
+		printOption(BINARY_CODECS_OPTION,
+				"generate ByteBuffer codecs in parameter classes");
+		printOption(JSON_CODECS_OPTION,
+				"generate JSON writers and readers in parameter classes");
+		System.exit(1);
+	}
+
+	private static void printOption(String option, String description) {
+		System.out.println(String.format("  %-30s %s", option, description));
+	}
 }
@@ -1,9 +1,12 @@
 package br.com.lugaid;
 
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystems;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,14 +14,26 @@ import org.slf4j.LoggerFactory;
 import com.sap.conn.jco.JCo;
 import com.sap.conn.jco.JCoDestination;
 import com.sap.conn.jco.JCoDestinationManager;
+import com.google.common.hash.Hashing;
 import com.sap.conn.jco.JCoException;
-import com.sap.conn.jco.JCoFunction;
-import com.sap.conn.jco.JCoParameterList;
 
+import br.com.lugaid.GenerationTimings.FunctionTimings;
+import br.com.lugaid.GenerationTimings.Phase;
 import br.com.lugaid.business.CallerClassGenerator;
+import br.com.lugaid.business.ClassFileGenerator;
+import br.com.lugaid.business.FunctionModuleMetadata;
+import br.com.lugaid.business.GeneratorOptions;
 import br.com.lugaid.business.HandlerClassGenerator;
+import br.com.lugaid.business.JCoMetadataRepository;
+import br.com.lugaid.business.MetadataRepository;
+import br.com.lugaid.business.MetadataSnapshot;
+import br.com.lugaid.business.JsonClassGenerator;
+import br.com.lugaid.business.MetricsClassGenerator;
 import br.com.lugaid.business.ParameterClassGenerator;
 import br.com.lugaid.business.Sap2JavaField;
+import br.com.lugaid.business.TemplateRegistry;
+import br.com.lugaid.helper.GeneratedFile;
+import br.com.lugaid.helper.GeneratedFile.Result;
 
 /**
  * Class that create .java files for SAP Function Mocules
@@ -30,6 +45,8 @@ public class SapFm2JavaClasses {
 	private static Logger logger = LoggerFactory
 			.getLogger(SapFm2JavaClasses.class);
 	private static final String DESTINATION_NAME = "SAP_CONNECTION";
+	private static final String FINGERPRINT_DIR = ".sapfm2java";
+	private static final String FINGERPRINT_EXTENSION = ".fingerprint";
 
 	private String functionMod;
 	private String mainClass;
@@ -39,15 +56,26 @@ public class SapFm2JavaClasses {
 	private String exportClassName;
 	private String changingClassName;
 	private String tableClassName;
-	private JCoParameterList importParmList;
-	private JCoParameterList exportParmList;
-	private JCoParameterList changingParmList;
-	private JCoParameterList tableParmList;
 	private String handlerClassName;
 	private String callerClassName;
 
 	private JCoDestination destination;
-	private JCoFunction function;
+	private MetadataRepository repository;
+	private FunctionModuleMetadata metadata;
+
+	private GeneratorOptions options = new GeneratorOptions();
+	private boolean incremental;
+	private GenerationStats stats = new GenerationStats();
+	private GenerationTimings timings = new GenerationTimings();
+	private volatile boolean failed;
+	private boolean modelBuilt;
+
+	/**
+	 * Files generated for each function module
+	 */
+	enum Artifact {
+		IMPORT, EXPORT, CHANGING, TABLE, HANDLER, CALLER, METRICS, JSON
+	}
 
 	/**
 	 * Constructor
@@ -63,6 +91,83 @@ public class SapFm2JavaClasses {
 		this.mainClass = mainClass;
 		this.functionMod = functionMod;
 		this.path = path;
+
+		defineClassNames();
+	}
+
+	/**
+	 * Constructor reusing an already connected repository, used to generate
+	 * many function modules over the same SAP connection.
+	 * 
+	 * @param mainClass
+	 *            Name of the main class
+	 * @param functionMod
+	 *            SAP Function Module name
+	 * @param path
+	 *            Path to write .java files
+	 * @param repository
+	 *            Shared metadata repository
+	 */
+	public SapFm2JavaClasses(String mainClass, String functionMod, Path path,
+			MetadataRepository repository) {
+		this(mainClass, functionMod, path);
+		this.repository = repository;
+	}
+
+	/**
+	 * Constructor for function module metadata already read.
+	 * 
+	 * @param mainClass
+	 *            Name of the main class
+	 * @param metadata
+	 *            Function module metadata
+	 * @param path
+	 *            Path to write .java files
+	 */
+	public SapFm2JavaClasses(String mainClass, FunctionModuleMetadata metadata,
+			Path path) {
+		this(mainClass, metadata.getFunctionMod(), path);
+		this.metadata = metadata;
+	}
+
+	public GeneratorOptions getOptions() {
+		return options;
+	}
+
+	public void setOptions(GeneratorOptions options) {
+		this.options = options;
+		this.modelBuilt = false;
+	}
+
+	public boolean isIncremental() {
+		return incremental;
+	}
+
+	/**
+	 * In incremental mode the classes are not rendered when the fingerprint of
+	 * metadata and templates is the same of last generation.
+	 * 
+	 * @param incremental
+	 *            Incremental mode
+	 */
+	public void setIncremental(boolean incremental) {
+		this.incremental = incremental;
+	}
+
+	public GenerationStats getStats() {
+		return stats;
+	}
+
+	public void setStats(GenerationStats stats) {
+		this.stats = stats;
+	}
+
+	public GenerationTimings getTimings() {
+		return timings;
+	}
+
+	public void setTimings(GenerationTimings timings) {
+		this.timings = timings;
 	}
 
 	/**
@@ -71,21 +176,229 @@ public class SapFm2JavaClasses {
 	public void generateClasses() {
 		logger.info("Starting generation classes for {} FM.", functionMod);
 
-		defineJCoDestination();
+		if (metadata == null) {
+			defineFunctionMetadata();
+		}
+
+		if (!skipUpToDate()) {
+			buildModel();
 
-		defineJCoFunction();
+			for (Artifact artifact : Artifact.values()) {
+				generateArtifact(artifact);
+			}
+
+			saveFingerprint();
+		}
+
+		logger.info("Generation classes for {} FM finished, files of the run: {}",
+				functionMod, stats);
+	}
+
+	/**
+	 * Apply the options to the fields of all parameters before the artifacts
+	 * are rendered, metadata must be already defined. The options are applied
+	 * once on the calling thread, render threads only read the fields.
+	 */
+	void buildModel() {
+		long start = System.nanoTime();
+		List<List<Sap2JavaField>> paramFields = new ArrayList<>();
+		paramFields.add(metadata.getImportFields());
+		paramFields.add(metadata.getExportFields());
+		paramFields.add(metadata.getChangingFields());
+		paramFields.add(metadata.getTableFields());
+
+		for (List<Sap2JavaField> fields : paramFields) {
+			if (fields != null) {
+				Sap2JavaField.applyOptions(fields, options);
+			}
+		}
+
+		modelBuilt = true;
+		functionTimings().add(Phase.MODEL_BUILD, System.nanoTime() - start);
+	}
 
-		generateImportParamClass();
+	private FunctionTimings functionTimings() {
+		return timings.getFunction(functionMod);
+	}
 
-		generateExportParamClass();
+	/**
+	 * Check in incremental mode if the classes are up to date, metadata must
+	 * be already defined.
+	 * 
+	 * @return true when generation must be skipped
+	 */
+	boolean skipUpToDate() {
+		if (!incremental) {
+			return false;
+		}
 
-		generateChangingParamClass();
+		List<Path> files = artifactFiles();
 
-		generateTableParamClass();
+		try {
+			Path fingerprintFile = fingerprintFile();
 
-		generateHandlerClass();
+			if (!Files.exists(fingerprintFile)
+					|| !new String(Files.readAllBytes(fingerprintFile),
+							StandardCharsets.UTF_8).equals(fingerprint())) {
+				return false;
+			}
+		} catch (IOException e) {
+			logger.debug("Stack trace ", e);
+			return false;
+		}
 
-		generateCallerClass();
+		for (Path file : files) {
+			if (!Files.exists(file)) {
+				return false;
+			}
+		}
+
+		logger.info("Classes for {} FM are up to date.", functionMod);
+		stats.countSkipped(files.size());
+
+		return true;
+	}
+
+	/**
+	 * Save fingerprint of the generation in incremental mode, nothing is saved
+	 * when some class failed.
+	 */
+	void saveFingerprint() {
+		if (!incremental || failed) {
+			return;
+		}
+
+		try {
+			Path fingerprintFile = fingerprintFile();
+
+			Files.createDirectories(fingerprintFile.getParent());
+			Files.write(fingerprintFile,
+					fingerprint().getBytes(StandardCharsets.UTF_8));
+		} catch (IOException e) {
+			logger.error("Error writting fingerprint of {} FM.", functionMod);
+			logger.debug("Stack trace ", e);
+		}
+	}
+
+	/**
+	 * Return if some class failed to be generated.
+	 * 
+	 * @return true when some class failed
+	 */
+	boolean isFailed() {
+		return failed;
+	}
+
+	/**
+	 * Fingerprint of generation, hash of templates, class names, options and
+	 * function module metadata.
+	 */
+	private String fingerprint() throws IOException {
+		return Hashing
+				.sha256()
+				.newHasher()
+				.putString(TemplateRegistry.templateVersion(),
+						StandardCharsets.UTF_8)
+				.putString(mainClass, StandardCharsets.UTF_8)
+				.putString(options.toString(), StandardCharsets.UTF_8)
+				.putString(MetadataSnapshot.contentHash(metadata),
+						StandardCharsets.UTF_8).hash().toString();
+	}
+
+	private Path fingerprintFile() {
+		return FileSystems.getDefault().getPath(path.toString(),
+				FINGERPRINT_DIR, mainClass.concat(FINGERPRINT_EXTENSION));
+	}
+
+	/**
+	 * Files generated for the function module
+	 */
+	private List<Path> artifactFiles() {
+		List<Path> files = new ArrayList<>();
+		String[] paramClasses = { importClassName, exportClassName,
+				changingClassName, tableClassName };
+		List<List<Sap2JavaField>> paramFields = new ArrayList<>();
+		paramFields.add(metadata.getImportFields());
+		paramFields.add(metadata.getExportFields());
+		paramFields.add(metadata.getChangingFields());
+		paramFields.add(metadata.getTableFields());
+
+		for (int i = 0; i < paramClasses.length; i++) {
+			if (paramFields.get(i) != null && !paramFields.get(i).isEmpty()) {
+				files.add(classFile(paramClasses[i]));
+			}
+		}
+
+		files.add(classFile(handlerClassName));
+		files.add(classFile(callerClassName));
+
+		if (options.isInstrumentation()) {
+			files.add(classFile(MetricsClassGenerator.METRICS_CLASS_NAME));
+		}
+
+		if (options.isJsonCodecs()) {
+			files.add(classFile(JsonClassGenerator.JSON_CLASS_NAME));
+		}
+
+		return files;
+	}
+
+	private Path classFile(String className) {
+		return FileSystems.getDefault().getPath(path.toString(),
+				options.packageDirectory(), className.concat(".java"));
+	}
+
+	/**
+	 * Generate .java file of one artifact, the model must be already built by
+	 * {@link #buildModel()}.
+	 * 
+	 * @param artifact
+	 *            Artifact to be generated
+	 */
+	void generateArtifact(Artifact artifact) {
+		if (!modelBuilt) {
+			throw new IllegalStateException(String.format(
+					"Model of FM %s not built before rendering.", functionMod));
+		}
+
+		switch (artifact) {
+		case IMPORT:
+			generateImportParamClass();
+			break;
+		case EXPORT:
+			generateExportParamClass();
+			break;
+		case CHANGING:
+			generateChangingParamClass();
+			break;
+		case TABLE:
+			generateTableParamClass();
+			break;
+		case HANDLER:
+			generateHandlerClass();
+			break;
+		case CALLER:
+			generateCallerClass();
+			break;
+		case METRICS:
+			generateMetricsClass();
+			break;
+		case JSON:
+			generateJsonClass();
+			break;
+		}
+	}
+
+	/**
+	 * Define names of all generated classes.
+	 */
+	private void defineClassNames() {
+		importClassName = mainClass.concat("Import");
+		exportClassName = mainClass.concat("Export");
+		changingClassName = mainClass.concat("Changing");
+		tableClassName = mainClass.concat("Table");
+		handlerClassName = mainClass.concat("Handler");
+		callerClassName = mainClass.concat("Caller");
 	}
 
 	/**
@@ -93,6 +406,19 @@ public class SapFm2JavaClasses {
 	 * SAP_CONNECTION.jcoDestination into start directory.
 	 */
 	private void defineJCoDestination() {
+		long start = System.nanoTime();
+
+		this.destination = createJCoDestination();
+		timings.addConnect(System.nanoTime() - start);
+	}
+
+	/**
+	 * Create the JCoDestination to SAP, must exists file
+	 * SAP_CONNECTION.jcoDestination into start directory.
+	 * 
+	 * @return Connected destination
+	 */
+	public static JCoDestination createJCoDestination() {
 		try {
 			logger.info("Starting connection to SAP.");
 
@@ -115,7 +441,7 @@ public class SapFm2JavaClasses {
 			logger.info("==============================================================");
 			logger.info("Setting JCo loggin level to 10.");
 
-			this.destination = destination;
+			return destination;
 		} catch (JCoException e) {
 			logger.error("Error on get SAP server {}.", DESTINATION_NAME);
 			logger.debug("Stack trace ", e);
@@ -127,144 +453,193 @@ public class SapFm2JavaClasses {
 	/**
 	 * Get Function Module meta-data.
 	 */
-	private void defineJCoFunction() {
+	private void defineFunctionMetadata() {
 		try {
-			logger.info("Get function module information for {}.", functionMod);
+			if (repository == null) {
+				defineJCoDestination();
+
+				repository = new JCoMetadataRepository(
+						destination.getRepository());
+			}
 
-			this.function = destination.getRepository()
-					.getFunction(functionMod);
+			long start = System.nanoTime();
+
+			this.metadata = repository.getFunctionMetadata(functionMod);
+			functionTimings().add(Phase.METADATA_FETCH,
+					System.nanoTime() - start);
 		} catch (JCoException e) {
 			logger.error("Error on get SAP Function Module {}.", functionMod);
 			logger.debug("Stack trace ", e);
 			throw new IllegalStateException("Exiting system.", e);
 		}
+
+		if (metadata == null) {
+			logger.error("SAP Function Module {} not found.", functionMod);
+			throw new IllegalStateException(String.format(
+					"Function Module %s not found.", functionMod));
+		}
 	}
 
 	/**
 	 * Generate .java file for Import parameters of function module.
 	 */
 	private void generateImportParamClass() {
-		importClassName = mainClass.concat("Import");
-
-		importParmList = function.getImportParameterList();
-
-		generateParamClass(importClassName, importParmList);
+		generateParamClass(Artifact.IMPORT, importClassName,
+				metadata.getImportFields());
 	}
 
 	/**
 	 * Generate .java file for Export parameters of function module.
 	 */
 	private void generateExportParamClass() {
-		exportClassName = mainClass.concat("Export");
-
-		exportParmList = function.getExportParameterList();
-
-		generateParamClass(exportClassName, exportParmList);
+		generateParamClass(Artifact.EXPORT, exportClassName,
+				metadata.getExportFields());
 	}
 
 	/**
 	 * Generate .java file for Changing parameters of function module.
 	 */
 	private void generateChangingParamClass() {
-		changingClassName = mainClass.concat("Changing");
-
-		changingParmList = function.getChangingParameterList();
-
-		generateParamClass(changingClassName, changingParmList);
+		generateParamClass(Artifact.CHANGING, changingClassName,
+				metadata.getChangingFields());
 	}
 
 	/**
 	 * Generate .java file for Table parameters of function module.
 	 */
 	private void generateTableParamClass() {
-		tableClassName = mainClass.concat("Table");
-
-		tableParmList = function.getTableParameterList();
-
-		generateParamClass(tableClassName, tableParmList);
+		generateParamClass(Artifact.TABLE, tableClassName,
+				metadata.getTableFields());
 	}
 
 	/**
 	 * Generate .java file for Handler class.
 	 */
 	private void generateHandlerClass() {
-		handlerClassName = mainClass.concat("Handler");
-
-		Path pathFile = FileSystems.getDefault().getPath(path.toString(),
-				handlerClassName.concat(".java"));
+		Path pathFile = classFile(handlerClassName);
 
 		logger.info("Handler class path {}.", pathFile.toString());
 
-		try {
-			FileWriter fileWriter = new FileWriter(pathFile.toFile());
-
-			HandlerClassGenerator handlerClassGenerator = new HandlerClassGenerator(
-					functionMod, mainClass, handlerClassName, importClassName,
-					exportClassName, changingClassName, tableClassName,
-					importParmList, exportParmList, changingParmList,
-					tableParmList);
+		HandlerClassGenerator handlerClassGenerator = new HandlerClassGenerator(
+				functionMod, mainClass, handlerClassName, importClassName,
+				exportClassName, changingClassName, tableClassName,
+				metadata.getImportFields(), metadata.getExportFields(),
+				metadata.getChangingFields(), metadata.getTableFields());
+		handlerClassGenerator.setOptions(options);
 
-			handlerClassGenerator.writeClassFile(fileWriter);
-		} catch (IOException e) {
-			logger.error("Error writting Caller class.");
-			logger.debug("Stack trace ", e);
-		}
+		writeClassFile(Artifact.HANDLER, pathFile, handlerClassGenerator);
 	}
 
 	/**
 	 * Generate .java file for Caller class.
 	 */
 	private void generateCallerClass() {
-		callerClassName = mainClass.concat("Caller");
-
-		Path pathFile = FileSystems.getDefault().getPath(path.toString(),
-				callerClassName.concat(".java"));
+		Path pathFile = classFile(callerClassName);
 
 		logger.info("Caller class path {}.", pathFile.toString());
 
-		try {
-			FileWriter fileWriter = new FileWriter(pathFile.toFile());
+		CallerClassGenerator callerClassGenerator = new CallerClassGenerator(
+				functionMod, mainClass, callerClassName, importClassName,
+				exportClassName, changingClassName, tableClassName,
+				metadata.getImportFields(), metadata.getExportFields(),
+				metadata.getChangingFields(), metadata.getTableFields());
+		callerClassGenerator.setOptions(options);
 
-			CallerClassGenerator callerClassGenerator = new CallerClassGenerator(
-					functionMod, mainClass, callerClassName, importClassName,
-					exportClassName, changingClassName, tableClassName,
-					importParmList, exportParmList, changingParmList,
-					tableParmList);
+		writeClassFile(Artifact.CALLER, pathFile, callerClassGenerator);
+	}
 
-			callerClassGenerator.writeClassFile(fileWriter);
-		} catch (IOException e) {
-			logger.error("Error writting Caller class.");
-			logger.debug("Stack trace ", e);
+	/**
+	 * Generate .java file for CallMetrics class used by instrumented callers
+	 * and handlers, the class is the same for all function modules.
+	 */
+	private void generateMetricsClass() {
+		if (options.isInstrumentation()) {
+			MetricsClassGenerator metricsClassGenerator = new MetricsClassGenerator();
+			metricsClassGenerator.setOptions(options);
+
+			writeClassFile(Artifact.METRICS,
+					classFile(MetricsClassGenerator.METRICS_CLASS_NAME),
+					metricsClassGenerator);
+		}
+	}
+
+	/**
+	 * Generate .java file for JsonStream class used by parameter classes with
+	 * JSON codecs, the class is the same for all function modules.
+	 */
+	private void generateJsonClass() {
+		if (options.isJsonCodecs()) {
+			JsonClassGenerator jsonClassGenerator = new JsonClassGenerator();
+			jsonClassGenerator.setOptions(options);
+
+			writeClassFile(Artifact.JSON,
+					classFile(JsonClassGenerator.JSON_CLASS_NAME),
+					jsonClassGenerator);
 		}
 	}
 
 	/**
 	 * Generic generator of .java file for parameters of function module.
 	 */
-	private void generateParamClass(String className, JCoParameterList parmList) {
-		if (parmList != null && parmList.getFieldCount() > 0) {
+	private void generateParamClass(Artifact artifact, String className,
+			List<Sap2JavaField> fields) {
+		if (fields != null && !fields.isEmpty()) {
 			logger.info("Starting generation class {} for {} FM.", className,
 					functionMod);
 
-			Path pathFile = FileSystems.getDefault().getPath(path.toString(),
-					className.concat(".java"));
-
-			try {
-				FileWriter fileWriter = new FileWriter(pathFile.toFile());
-
-				ParameterClassGenerator parameterClassGenerator = new ParameterClassGenerator(
-						className, Sap2JavaField.mapTypes(parmList
-								.getFieldIterator()));
+			ParameterClassGenerator parameterClassGenerator = new ParameterClassGenerator(
+					className, fields);
+			parameterClassGenerator.setOptions(options);
 
-				parameterClassGenerator.writeClassFile(fileWriter);
-			} catch (IOException e) {
-				logger.error("Error writting Caller class.");
-				logger.debug("Stack trace ", e);
-			}
+			writeClassFile(artifact, classFile(className),
+					parameterClassGenerator);
 		} else {
 			logger.info(
 					"Parameter list for FM {} is blank, class {} will not be generated.",
 					functionMod, className);
 		}
 	}
+
+	/**
+	 * Render a class straight into its file, the file is replaced only when
+	 * its content changed. Rendering is timed up to the end of the class and
+	 * the comparison and move of the file as writing.
+	 */
+	private void writeClassFile(Artifact artifact, Path pathFile,
+			ClassFileGenerator generator) {
+		try {
+			Files.createDirectories(pathFile.getParent());
+		} catch (IOException e) {
+			logger.error("Error creating directory of class file {}.", pathFile);
+			logger.debug("Stack trace ", e);
+			failed = true;
+			return;
+		}
+
+		try (GeneratedFile file = new GeneratedFile(pathFile)) {
+			long start = System.nanoTime();
+			boolean rendered = generator.writeClassFile(file.getWriter());
+			long committing = System.nanoTime();
+
+			functionTimings().addRender(artifact, committing - start);
+
+			if (rendered) {
+				try {
+					Result result = file.commit();
+
+					logger.info("Class file {} {}.", pathFile, result);
+					stats.count(result);
+				} finally {
+					functionTimings().addWrite(artifact,
+							System.nanoTime() - committing);
+				}
+			} else {
+				failed = true;
+			}
+		} catch (IOException e) {
+			logger.error("Error writting class file {}.", pathFile);
+			logger.debug("Stack trace ", e);
+			failed = true;
+		}
+	}
 }
@@ -0,0 +1,302 @@
+package br.com.lugaid;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sap.conn.jco.JCoDestination;
+
+import br.com.lugaid.GenerationTimings.Phase;
+import br.com.lugaid.SapFm2JavaBatch.BatchEntry;
+import br.com.lugaid.SapFm2JavaClasses.Artifact;
+import br.com.lugaid.business.FunctionModuleMetadata;
+import br.com.lugaid.business.GeneratorOptions;
+import br.com.lugaid.business.MetadataRepository;
+
+/**
+ * Parallel generation of many function modules. Metadata lookups run on a
+ * pool bounded by the lookup concurrency and class rendering runs on a
+ * separated pool. Each lookup submits the rendering of its function module as
+ * soon as the metadata is read, so a slow lookup does not hold the rendering
+ * of the other function modules.
+ *
+ * @author Emerson Rancoletta
+ * @version 1.0
+ */
+public class SapFm2JavaParallel {
+	private static Logger logger = LoggerFactory
+			.getLogger(SapFm2JavaParallel.class);
+
+	private MetadataRepository repository;
+	private int lookupConcurrency;
+	private int renderThreads;
+	private GeneratorOptions options = new GeneratorOptions();
+	private boolean incremental;
+	private GenerationStats stats = new GenerationStats();
+	private GenerationTimings timings = new GenerationTimings();
+
+	/**
+	 * Constructor
+	 *
+	 * @param repository
+	 *            Source of function module metadata
+	 * @param lookupConcurrency
+	 *            Max of concurrent metadata lookups
+	 * @param renderThreads
+	 *            Threads used to render classes
+	 */
+	public SapFm2JavaParallel(MetadataRepository repository,
+			int lookupConcurrency, int renderThreads) {
+		if (lookupConcurrency < 1 || renderThreads < 1) {
+			throw new IllegalArgumentException(
+					"Concurrency must be greater than zero.");
+		}
+
+		this.repository = repository;
+		this.lookupConcurrency = lookupConcurrency;
+		this.renderThreads = renderThreads;
+	}
+
+	public int getLookupConcurrency() {
+		return lookupConcurrency;
+	}
+
+	public int getRenderThreads() {
+		return renderThreads;
+	}
+
+	public GeneratorOptions getOptions() {
+		return options;
+	}
+
+	public void setOptions(GeneratorOptions options) {
+		this.options = options;
+	}
+
+	public boolean isIncremental() {
+		return incremental;
+	}
+
+	public void setIncremental(boolean incremental) {
+		this.incremental = incremental;
+	}
+
+	public GenerationStats getStats() {
+		return stats;
+	}
+
+	public void setStats(GenerationStats stats) {
+		this.stats = stats;
+	}
+
+	public GenerationTimings getTimings() {
+		return timings;
+	}
+
+	public void setTimings(GenerationTimings timings) {
+		this.timings = timings;
+	}
+
+	/**
+	 * Limit the requested concurrency to jco.destination.peak_limit, the max
+	 * of connections the destination opens at same time.
+	 *
+	 * @param destination
+	 *            SAP destination
+	 * @param requested
+	 *            Requested concurrency
+	 * @return Concurrency allowed by destination
+	 */
+	public static int lookupConcurrency(JCoDestination destination,
+			int requested) {
+		int peakLimit = destination.getPeakLimit();
+
+		if (peakLimit > 0 && peakLimit < requested) {
+			logger.info("Concurrency limited to peak_limit {}.", peakLimit);
+			return peakLimit;
+		}
+
+		return requested;
+	}
+
+	/**
+	 * Generate classes for all entries
+	 *
+	 * @param entries
+	 *            Function modules to be generated
+	 * @return true when all entries were generated
+	 */
+	public boolean generateClasses(List<BatchEntry> entries) {
+		logger.info(
+				"Starting parallel generation of {} FMs, {} lookups and {} render threads.",
+				entries.size(), lookupConcurrency, renderThreads);
+
+		ExecutorService lookupPool = Executors
+				.newFixedThreadPool(lookupConcurrency);
+		ExecutorService renderPool = Executors.newFixedThreadPool(renderThreads);
+
+		try {
+			List<EntryRender> renders = new ArrayList<>();
+			List<Future<Boolean>> lookups = new ArrayList<>();
+
+			for (BatchEntry entry : entries) {
+				EntryRender entryRender = new EntryRender();
+
+				renders.add(entryRender);
+				lookups.add(lookupPool.submit(new MetadataLookup(entry,
+						entryRender, renderPool)));
+			}
+
+			boolean success = true;
+
+			for (int i = 0; i < entries.size(); i++) {
+				BatchEntry entry = entries.get(i);
+				EntryRender entryRender = renders.get(i);
+				boolean entrySuccess;
+
+				try {
+					entrySuccess = lookups.get(i).get();
+				} catch (ExecutionException e) {
+					logger.error("Error on get SAP Function Module {}.",
+							entry.getFunctionMod());
+					logger.debug("Stack trace ", e);
+					entrySuccess = false;
+				}
+
+				if (entrySuccess) {
+					for (Future<Long> render : entryRender.renders) {
+						try {
+							entryRender.finish = Math.max(entryRender.finish,
+									render.get());
+						} catch (ExecutionException e) {
+							logger.error("Error rendering classes for {} FM.",
+									entry.getFunctionMod());
+							logger.debug("Stack trace ", e);
+							entrySuccess = false;
+						}
+					}
+
+					entrySuccess &= !entryRender.sapfm.isFailed();
+
+					if (entrySuccess) {
+						entryRender.sapfm.saveFingerprint();
+					}
+				}
+
+				entry.setSuccess(entrySuccess);
+				entry.setElapsedNanos(entryRender.finish - entryRender.start);
+				success &= entrySuccess;
+			}
+
+			return success;
+		} catch (InterruptedException e) {
+			logger.error("Parallel generation interrupted.");
+			Thread.currentThread().interrupt();
+			return false;
+		} finally {
+			lookupPool.shutdownNow();
+			renderPool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Generator, pending renders and wall time of one function module, from
+	 * the start of its lookup to the end of its last render
+	 */
+	private static class EntryRender {
+		private SapFm2JavaClasses sapfm;
+		private List<Future<Long>> renders = new ArrayList<>();
+		private long start;
+		private long finish;
+	}
+
+	/**
+	 * Read metadata of one function module and submit the rendering of all its
+	 * artifacts, nothing is rendered when the entry is up to date.
+	 */
+	private class MetadataLookup implements Callable<Boolean> {
+		private BatchEntry entry;
+		private EntryRender entryRender;
+		private ExecutorService renderPool;
+
+		public MetadataLookup(BatchEntry entry, EntryRender entryRender,
+				ExecutorService renderPool) {
+			this.entry = entry;
+			this.entryRender = entryRender;
+			this.renderPool = renderPool;
+		}
+
+		/**
+		 * @return true when metadata was read and renders were submitted
+		 */
+		@Override
+		public Boolean call() throws Exception {
+			String functionMod = entry.getFunctionMod();
+			FunctionModuleMetadata metadata;
+
+			entryRender.start = System.nanoTime();
+
+			try {
+				metadata = repository.getFunctionMetadata(functionMod);
+			} finally {
+				entryRender.finish = System.nanoTime();
+				timings.getFunction(functionMod).add(Phase.METADATA_FETCH,
+						entryRender.finish - entryRender.start);
+			}
+
+			if (metadata == null) {
+				logger.error("SAP Function Module {} not found.", functionMod);
+				return false;
+			}
+
+			Files.createDirectories(entry.getPath());
+
+			SapFm2JavaClasses sapfm = new SapFm2JavaClasses(
+					entry.getMainClass(), metadata, entry.getPath());
+			sapfm.setOptions(options);
+			sapfm.setIncremental(incremental);
+			sapfm.setStats(stats);
+			sapfm.setTimings(timings);
+			entryRender.sapfm = sapfm;
+
+			if (!sapfm.skipUpToDate()) {
+				sapfm.buildModel();
+
+				for (Artifact artifact : Artifact.values()) {
+					entryRender.renders.add(renderPool
+							.submit(new ArtifactRender(sapfm, artifact)));
+				}
+			}
+
+			return true;
+		}
+	}
+
+	/**
+	 * Render one artifact, returns the time the render finished.
+	 */
+	private static class ArtifactRender implements Callable<Long> {
+		private SapFm2JavaClasses sapfm;
+		private Artifact artifact;
+
+		public ArtifactRender(SapFm2JavaClasses sapfm, Artifact artifact) {
+			this.sapfm = sapfm;
+			this.artifact = artifact;
+		}
+
+		@Override
+		public Long call() {
+			sapfm.generateArtifact(artifact);
+
+			return System.nanoTime();
+		}
+	}
+}
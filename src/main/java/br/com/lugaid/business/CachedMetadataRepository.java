@@ -0,0 +1,275 @@
+package br.com.lugaid.business;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sap.conn.jco.JCoException;
+
+import br.com.lugaid.helper.GeneratedFile;
+
+/**
+ * Metadata repository keeping a local cache on disk of the metadata read
+ * from a source repository, one file per function module.
+ *
+ * Each cache file stores the time it was fetched, the content hash and the
+ * metadata snapshot. Entries older than the time to live are fetched again
+ * and the content hash tells if the function module interface changed. The
+ * access to each entry is guarded by a file lock, so many generator processes
+ * can share the same cache directory.
+ *
+ * @author Emerson Rancoletta
+ * @version = 1.0
+ */
+public class CachedMetadataRepository implements MetadataRepository {
+	private static Logger logger = LoggerFactory
+			.getLogger(CachedMetadataRepository.class);
+
+	public static final String FILE_EXTENSION = ".fmcache";
+
+	private static final String HEADER = "SAPFM2JAVA-CACHE 1";
+	private static final String FETCHED_PREFIX = "FETCHED ";
+	private static final String HASH_PREFIX = "HASH ";
+	private static final String LOCK_EXTENSION = ".lock";
+
+	/**
+	 * How cache entries are refreshed from source
+	 */
+	public enum RefreshMode {
+		/** Fetch only entries missing or older than time to live */
+		STALE,
+		/** Fetch all entries, checking if they changed */
+		ALL,
+		/** Never fetch, use only cached entries */
+		NEVER
+	}
+
+	/**
+	 * Result of the last access to a cache entry
+	 */
+	public enum EntryStatus {
+		/** Entry read from cache without access to source */
+		CACHED,
+		/** Entry fetched from source with same content hash */
+		UNCHANGED,
+		/** Entry fetched from source with different content hash */
+		CHANGED,
+		/** Entry fetched from source for the first time */
+		NEW
+	}
+
+	private Path directory;
+	private MetadataRepository source;
+	private long ttlMillis;
+	private RefreshMode refreshMode = RefreshMode.STALE;
+	private ConcurrentMap<String, Object> entryLocks = new ConcurrentHashMap<>();
+	private ConcurrentMap<String, EntryStatus> entryStatus = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructor
+	 *
+	 * @param directory
+	 *            Directory of cache files
+	 * @param source
+	 *            Repository where metadata is read when cache is stale
+	 * @param ttlMillis
+	 *            Time to live of cache entries in milliseconds
+	 */
+	public CachedMetadataRepository(Path directory, MetadataRepository source,
+			long ttlMillis) {
+		this.directory = directory;
+		this.source = source;
+		this.ttlMillis = ttlMillis;
+	}
+
+	public Path getDirectory() {
+		return directory;
+	}
+
+	public MetadataRepository getSource() {
+		return source;
+	}
+
+	public long getTtlMillis() {
+		return ttlMillis;
+	}
+
+	public RefreshMode getRefreshMode() {
+		return refreshMode;
+	}
+
+	public void setRefreshMode(RefreshMode refreshMode) {
+		this.refreshMode = refreshMode;
+	}
+
+	/**
+	 * Return the result of the last access to a function module
+	 *
+	 * @param functionMod
+	 *            SAP Function Module name
+	 * @return Entry status, null when function module was not accessed
+	 */
+	public EntryStatus getEntryStatus(String functionMod) {
+		return entryStatus.get(functionMod);
+	}
+
+	@Override
+	public FunctionModuleMetadata getFunctionMetadata(String functionMod)
+			throws JCoException {
+		String fileName = MetadataSnapshot.fileName(functionMod).replace(
+				MetadataSnapshot.FILE_EXTENSION, FILE_EXTENSION);
+		Path file = directory.resolve(fileName);
+		Path lockFile = directory.resolve(fileName.concat(LOCK_EXTENSION));
+
+		entryLocks.putIfAbsent(functionMod, new Object());
+
+		// File locks are held by the whole JVM, so threads of the same
+		// process are serialized before trying the file lock
+		synchronized (entryLocks.get(functionMod)) {
+			try {
+				Files.createDirectories(directory);
+
+				try (FileChannel channel = FileChannel.open(lockFile,
+						StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+					FileLock lock = channel.lock();
+
+					try {
+						return getLockedEntry(functionMod, file);
+					} finally {
+						lock.release();
+					}
+				}
+			} catch (IOException e) {
+				logger.error("Error on metadata cache {}.", file);
+				logger.debug("Stack trace ", e);
+				throw new IllegalStateException(String.format(
+						"Error on metadata cache %s.", file), e);
+			}
+		}
+	}
+
+	/**
+	 * Read or refresh an entry, the entry lock must be held.
+	 */
+	private FunctionModuleMetadata getLockedEntry(String functionMod,
+			Path file) throws IOException, JCoException {
+		CacheEntry cached = Files.exists(file) ? readEntry(file) : null;
+
+		if (cached != null
+				&& (refreshMode == RefreshMode.NEVER || (refreshMode == RefreshMode.STALE && System
+						.currentTimeMillis() - cached.fetched < ttlMillis))) {
+			logger.info("Function module {} read from cache.", functionMod);
+			entryStatus.put(functionMod, EntryStatus.CACHED);
+			return cached.metadata;
+		}
+
+		if (refreshMode == RefreshMode.NEVER) {
+			logger.error("Function module {} not found in cache.", functionMod);
+			return null;
+		}
+
+		FunctionModuleMetadata metadata = source
+				.getFunctionMetadata(functionMod);
+
+		if (metadata == null) {
+			return null;
+		}
+
+		String hash = MetadataSnapshot.contentHash(metadata);
+		EntryStatus status;
+
+		if (cached == null) {
+			status = EntryStatus.NEW;
+		} else if (cached.hash.equals(hash)) {
+			status = EntryStatus.UNCHANGED;
+		} else {
+			status = EntryStatus.CHANGED;
+		}
+
+		logger.info("Function module {} fetched, cache entry {}.",
+				functionMod, status);
+
+		writeEntry(file, metadata, hash);
+		entryStatus.put(functionMod, status);
+
+		return metadata;
+	}
+
+	/**
+	 * Read cache file, invalid files are ignored and fetched again.
+	 */
+	private CacheEntry readEntry(Path file) throws IOException {
+		try (BufferedReader reader = Files.newBufferedReader(file,
+				StandardCharsets.UTF_8)) {
+			String header = reader.readLine();
+			String fetched = reader.readLine();
+			String hash = reader.readLine();
+
+			if (!HEADER.equals(header) || fetched == null
+					|| !fetched.startsWith(FETCHED_PREFIX) || hash == null
+					|| !hash.startsWith(HASH_PREFIX)) {
+				logger.info("Ignoring invalid cache file {}.", file);
+				return null;
+			}
+
+			CacheEntry entry = new CacheEntry();
+			entry.fetched = Long.parseLong(fetched.substring(FETCHED_PREFIX
+					.length()));
+			entry.hash = hash.substring(HASH_PREFIX.length());
+			entry.metadata = MetadataSnapshot.read(reader);
+
+			return entry;
+		} catch (IOException | NumberFormatException e) {
+			logger.info("Ignoring invalid cache file {}.", file);
+			logger.debug("Stack trace ", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Write cache file into a temporary file and move it, readers never see a
+	 * file partially written.
+	 */
+	private void writeEntry(Path file, FunctionModuleMetadata metadata,
+			String hash) throws IOException {
+		Path tempFile = GeneratedFile.createTempFile(file);
+
+		try {
+			try (BufferedWriter writer = Files.newBufferedWriter(tempFile,
+					StandardCharsets.UTF_8)) {
+				writer.write(HEADER);
+				writer.write('\n');
+				writer.write(FETCHED_PREFIX);
+				writer.write(Long.toString(System.currentTimeMillis()));
+				writer.write('\n');
+				writer.write(HASH_PREFIX);
+				writer.write(hash);
+				writer.write('\n');
+				MetadataSnapshot.write(metadata, writer);
+			}
+
+			Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(tempFile);
+		}
+	}
+
+	private static class CacheEntry {
+		private long fetched;
+		private String hash;
+		private FunctionModuleMetadata metadata;
+	}
+}
@@ -1,17 +1,15 @@
 package br.com.lugaid.business;
 
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.github.mustachejava.DefaultMustacheFactory;
 import com.github.mustachejava.Mustache;
-import com.github.mustachejava.MustacheFactory;
 import com.google.common.base.Joiner;
 import com.google.common.base.Splitter;
-import com.sap.conn.jco.JCoParameterList;
 
 import static br.com.lugaid.helper.StringHelper.smallizeFirstChar;
 
@@ -21,7 +19,7 @@ import static br.com.lugaid.helper.StringHelper.smallizeFirstChar;
  * @author Emerson Rancoletta
  * @version = 1.0
  */
-public class CallerClassGenerator {
+public class CallerClassGenerator implements ClassFileGenerator {
 	private static Logger logger = LoggerFactory
 			.getLogger(CallerClassGenerator.class);
 
@@ -32,17 +30,18 @@ public class CallerClassGenerator {
 	private String exportClassName;
 	private String changingClassName;
 	private String tableClassName;
-	private JCoParameterList importParmList;
-	private JCoParameterList exportParmList;
-	private JCoParameterList changingParmList;
-	private JCoParameterList tableParmList;
+	private List<Sap2JavaField> importFields;
+	private List<Sap2JavaField> exportFields;
+	private List<Sap2JavaField> changingFields;
+	private List<Sap2JavaField> tableFields;
+	private GeneratorOptions options = new GeneratorOptions();
 
 	public CallerClassGenerator(String functionMod, String mainClass,
 			String callerClassName, String importClassName,
 			String exportClassName, String changingClassName,
-			String tableClassName, JCoParameterList importParmList,
-			JCoParameterList exportParmList, JCoParameterList changingParmList,
-			JCoParameterList tableParmList) {
+			String tableClassName, List<Sap2JavaField> importFields,
+			List<Sap2JavaField> exportFields,
+			List<Sap2JavaField> changingFields, List<Sap2JavaField> tableFields) {
 		this.functionMod = functionMod;
 		this.mainClass = mainClass;
 		this.callerClassName = callerClassName;
@@ -50,10 +49,18 @@ public class CallerClassGenerator {
 		this.exportClassName = exportClassName;
 		this.changingClassName = changingClassName;
 		this.tableClassName = tableClassName;
-		this.importParmList = importParmList;
-		this.exportParmList = exportParmList;
-		this.changingParmList = changingParmList;
-		this.tableParmList = tableParmList;
+		this.importFields = importFields;
+		this.exportFields = exportFields;
+		this.changingFields = changingFields;
+		this.tableFields = tableFields;
+	}
+
+	public GeneratorOptions getOptions() {
+		return options;
+	}
+
+	public void setOptions(GeneratorOptions options) {
+		this.options = options;
 	}
 
 	public String getFunctionMod() {
@@ -112,52 +119,52 @@ public class CallerClassGenerator {
 		this.tableClassName = tableClassName;
 	}
 
-	public JCoParameterList getImportParmList() {
-		return importParmList;
+	public List<Sap2JavaField> getImportFields() {
+		return importFields;
 	}
 
-	public void setImportParmList(JCoParameterList importParmList) {
-		this.importParmList = importParmList;
+	public void setImportFields(List<Sap2JavaField> importFields) {
+		this.importFields = importFields;
 	}
 
-	public JCoParameterList getExportParmList() {
-		return exportParmList;
+	public List<Sap2JavaField> getExportFields() {
+		return exportFields;
 	}
 
-	public void setExportParmList(JCoParameterList exportParmList) {
-		this.exportParmList = exportParmList;
+	public void setExportFields(List<Sap2JavaField> exportFields) {
+		this.exportFields = exportFields;
 	}
 
-	public JCoParameterList getChangingParmList() {
-		return changingParmList;
+	public List<Sap2JavaField> getChangingFields() {
+		return changingFields;
 	}
 
-	public void setChangingParmList(JCoParameterList changingParmList) {
-		this.changingParmList = changingParmList;
+	public void setChangingFields(List<Sap2JavaField> changingFields) {
+		this.changingFields = changingFields;
 	}
 
-	public JCoParameterList getTableParmList() {
-		return tableParmList;
+	public List<Sap2JavaField> getTableFields() {
+		return tableFields;
 	}
 
-	public void setTableParmList(JCoParameterList tableParmList) {
-		this.tableParmList = tableParmList;
+	public void setTableFields(List<Sap2JavaField> tableFields) {
+		this.tableFields = tableFields;
 	}
 
 	public boolean hasImportParameters() {
-		return importParmList != null && importParmList.getFieldCount() > 0;
+		return importFields != null && !importFields.isEmpty();
 	}
 
 	public boolean hasExportParameters() {
-		return exportParmList != null && exportParmList.getFieldCount() > 0;
+		return exportFields != null && !exportFields.isEmpty();
 	}
 
 	public boolean hasChangingParameters() {
-		return changingParmList != null && changingParmList.getFieldCount() > 0;
+		return changingFields != null && !changingFields.isEmpty();
 	}
 
 	public boolean hasTableParameters() {
-		return tableParmList != null && tableParmList.getFieldCount() > 0;
+		return tableFields != null && !tableFields.isEmpty();
 	}
 
 	public String importObjectName() {
@@ -176,27 +183,118 @@ public class CallerClassGenerator {
 		return smallizeFirstChar(tableClassName);
 	}
 
+	/**
+	 * Return if the caller streams rows of tables to consumers, tables
+	 * generated as columns have no row objects to stream.
+	 * 
+	 * @return true when there are tables with row classes
+	 */
+	public boolean isRowStreaming() {
+		return hasTableParameters() && !options.isColumnarTables();
+	}
+
 	public String buildCallerParameter() {
+		return joinParameters(true, true);
+	}
+
+	/**
+	 * Names of the parameter objects, in the order of
+	 * {@link #buildCallerParameter()}
+	 * 
+	 * @return Arguments to pass the parameter objects
+	 */
+	public String buildCallerArguments() {
+		return joinParameters(false, true);
+	}
+
+	/**
+	 * Parameter objects sent to the function module, all but export
+	 * 
+	 * @return Parameters declaration without export
+	 */
+	public String buildExecuteParameter() {
+		return joinParameters(true, false);
+	}
+
+	/**
+	 * Names of the parameter objects sent to the function module, in the
+	 * order of {@link #buildExecuteParameter()}
+	 * 
+	 * @return Arguments without export
+	 */
+	public String buildExecuteArguments() {
+		return joinParameters(false, false);
+	}
+
+	/**
+	 * Return if asynchronous calls are generated
+	 * 
+	 * @return true with async callers option
+	 */
+	public boolean isAsync() {
+		return options.isAsyncCallers();
+	}
+
+	/**
+	 * Return if batch calls are generated, they call the function module once
+	 * for each import
+	 * 
+	 * @return true when function module has import parameters
+	 */
+	public boolean isBatch() {
+		return hasImportParameters();
+	}
+
+	/**
+	 * Return if the caller creates executors
+	 * 
+	 * @return true for asynchronous or batch calls
+	 */
+	public boolean usesExecutors() {
+		return isAsync() || isBatch();
+	}
+
+	/**
+	 * Return if the caller reads table parameters from the list
+	 * 
+	 * @return true for streamed rows or instrumented tables
+	 */
+	public boolean usesParameterList() {
+		return isRowStreaming()
+				|| (options.isInstrumentation() && hasTableParameters());
+	}
+
+	/**
+	 * Result of asynchronous calls, the export class or Void when function
+	 * module has no export parameters
+	 * 
+	 * @return Type of the future value
+	 */
+	public String asyncResultType() {
+		return hasExportParameters() ? exportClassName : "Void";
+	}
+
+	private String joinParameters(boolean withTypes, boolean withExport) {
 		StringBuffer sb = new StringBuffer();
 
 		if (hasImportParameters()) {
-			sb.append(String.format("%s %s,", getImportClassName(),
-					importObjectName()));
+			appendParameter(sb, withTypes, getImportClassName(),
+					importObjectName());
 		}
 
-		if (hasExportParameters()) {
-			sb.append(String.format("%s %s,", getExportClassName(),
-					exportObjectName()));
+		if (withExport && hasExportParameters()) {
+			appendParameter(sb, withTypes, getExportClassName(),
+					exportObjectName());
 		}
 
 		if (hasChangingParameters()) {
-			sb.append(String.format("%s %s,", getChangingClassName(),
-					changingObjectName()));
+			appendParameter(sb, withTypes, getChangingClassName(),
+					changingObjectName());
 		}
 
 		if (hasTableParameters()) {
-			sb.append(String.format("%s %s,", getTableClassName(),
-					tableObjectName()));
+			appendParameter(sb, withTypes, getTableClassName(),
+					tableObjectName());
 		}
 
 		Splitter splitter = Splitter.on(',').omitEmptyStrings().trimResults();
@@ -205,13 +303,23 @@ public class CallerClassGenerator {
 		return joiner.join(splitter.split(sb.toString()));
 	}
 
-	public boolean writeClassFile(FileWriter fileWriter) {
+	private static void appendParameter(StringBuffer sb, boolean withType,
+			String className, String objectName) {
+		if (withType) {
+			sb.append(className).append(' ');
+		}
+
+		sb.append(objectName).append(',');
+	}
+
+	@Override
+	public boolean writeClassFile(Writer writer) {
 		logger.info("Writting Caller class.");
 
-		MustacheFactory mf = new DefaultMustacheFactory();
-		Mustache mustache = mf.compile("templates/CallerTemplate.mustache");
+		Mustache mustache = TemplateRegistry
+				.getTemplate(TemplateRegistry.CALLER_TEMPLATE);
 		try {
-			mustache.execute(fileWriter, this).flush();
+			mustache.execute(writer, this).flush();
 			return true;
 		} catch (IOException e) {
 			logger.error("Error writting Caller class.");
@@ -0,0 +1,20 @@
+package br.com.lugaid.business;
+
+import java.io.Writer;
+
+/**
+ * Generator of one .java file
+ * 
+ * @author Emerson Rancoletta
+ * @version = 1.0
+ */
+public interface ClassFileGenerator {
+	/**
+	 * Write the class content
+	 * 
+	 * @param writer
+	 *            Destination of class content
+	 * @return true when class was written
+	 */
+	boolean writeClassFile(Writer writer);
+}
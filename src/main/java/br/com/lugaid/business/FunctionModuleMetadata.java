@@ -0,0 +1,90 @@
+package br.com.lugaid.business;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.sap.conn.jco.JCoFunction;
+import com.sap.conn.jco.JCoParameterList;
+
+/**
+ * Parameters of a SAP function module already mapped to Sap2JavaField, so
+ * the generation does not depend on a live JCoFunction.
+ * 
+ * @author Emerson Rancoletta
+ * @version = 1.0
+ */
+public class FunctionModuleMetadata {
+	private String functionMod;
+	private List<Sap2JavaField> importFields;
+	private List<Sap2JavaField> exportFields;
+	private List<Sap2JavaField> changingFields;
+	private List<Sap2JavaField> tableFields;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param functionMod
+	 *            SAP Function Module name
+	 * @param importFields
+	 *            Import parameters
+	 * @param exportFields
+	 *            Export parameters
+	 * @param changingFields
+	 *            Changing parameters
+	 * @param tableFields
+	 *            Table parameters
+	 */
+	public FunctionModuleMetadata(String functionMod,
+			List<Sap2JavaField> importFields, List<Sap2JavaField> exportFields,
+			List<Sap2JavaField> changingFields, List<Sap2JavaField> tableFields) {
+		this.functionMod = functionMod;
+		this.importFields = importFields;
+		this.exportFields = exportFields;
+		this.changingFields = changingFields;
+		this.tableFields = tableFields;
+	}
+
+	public String getFunctionMod() {
+		return functionMod;
+	}
+
+	public List<Sap2JavaField> getImportFields() {
+		return importFields;
+	}
+
+	public List<Sap2JavaField> getExportFields() {
+		return exportFields;
+	}
+
+	public List<Sap2JavaField> getChangingFields() {
+		return changingFields;
+	}
+
+	public List<Sap2JavaField> getTableFields() {
+		return tableFields;
+	}
+
+	/**
+	 * Map all parameter lists of a SAP function module
+	 * 
+	 * @param function
+	 *            SAP function module
+	 * @return Function module metadata
+	 */
+	public static FunctionModuleMetadata fromJCoFunction(JCoFunction function) {
+		return new FunctionModuleMetadata(function.getName(),
+				mapParameterList(function.getImportParameterList()),
+				mapParameterList(function.getExportParameterList()),
+				mapParameterList(function.getChangingParameterList()),
+				mapParameterList(function.getTableParameterList()));
+	}
+
+	private static List<Sap2JavaField> mapParameterList(
+			JCoParameterList parmList) {
+		if (parmList == null || parmList.getFieldCount() == 0) {
+			return new ArrayList<>();
+		}
+
+		return Sap2JavaField.mapTypes(parmList.getFieldIterator());
+	}
+}
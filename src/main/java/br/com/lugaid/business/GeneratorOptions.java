@@ -0,0 +1,195 @@
+package br.com.lugaid.business;
+
+/**
+ * Options of the generated code, shared by all generators of a run.
+ * 
+ * @author Emerson Rancoletta
+ * @version = 1.0
+ */
+public class GeneratorOptions {
+	/**
+	 * Java representation of SAP DATE and TIME fields
+	 */
+	public enum DateMapping {
+		/** java.util.Date as returned by JCo */
+		DATE,
+		/** java.time.LocalDate and java.time.LocalTime, needs Java 8 */
+		JAVA_TIME,
+		/** int with epoch day for DATE and second of day for TIME */
+		EPOCH
+	}
+
+	private String packageName;
+	private boolean primitiveTypes;
+	private DateMapping dateMapping = DateMapping.DATE;
+	private boolean columnarTables;
+	private boolean asyncCallers;
+	private boolean instrumentation;
+	private boolean binaryCodecs;
+	private boolean jsonCodecs;
+
+	public String getPackageName() {
+		return packageName;
+	}
+
+	/**
+	 * Package of generated classes, classes are generated without package
+	 * when null
+	 * 
+	 * @param packageName
+	 *            Java package name
+	 */
+	public void setPackageName(String packageName) {
+		this.packageName = packageName;
+	}
+
+	public boolean isPrimitiveTypes() {
+		return primitiveTypes;
+	}
+
+	/**
+	 * Generate INT as int and NUM as long instead of Integer and Long, initial
+	 * SAP values are mapped to zero.
+	 * 
+	 * @param primitiveTypes
+	 *            Use primitive types
+	 */
+	public void setPrimitiveTypes(boolean primitiveTypes) {
+		this.primitiveTypes = primitiveTypes;
+	}
+
+	public DateMapping getDateMapping() {
+		return dateMapping;
+	}
+
+	public void setDateMapping(DateMapping dateMapping) {
+		this.dateMapping = dateMapping;
+	}
+
+	public boolean isColumnarTables() {
+		return columnarTables;
+	}
+
+	/**
+	 * Generate TABLE rows as a class keeping each field in an array, with
+	 * getters by row and a cursor over the rows, instead of a list of row
+	 * objects.
+	 * 
+	 * @param columnarTables
+	 *            Generate tables as columns
+	 */
+	public void setColumnarTables(boolean columnarTables) {
+		this.columnarTables = columnarTables;
+	}
+
+	public boolean isAsyncCallers() {
+		return asyncCallers;
+	}
+
+	/**
+	 * Generate callers with callFunctionModuleAsync returning a
+	 * CompletableFuture, generated code needs Java 8.
+	 * 
+	 * @param asyncCallers
+	 *            Generate asynchronous calls
+	 */
+	public void setAsyncCallers(boolean asyncCallers) {
+		this.asyncCallers = asyncCallers;
+	}
+
+	public boolean isInstrumentation() {
+		return instrumentation;
+	}
+
+	/**
+	 * Generate callers and handlers recording the time of each phase of the
+	 * calls, the rows of tables and the errors into the CallMetrics class.
+	 * 
+	 * @param instrumentation
+	 *            Generate instrumented calls
+	 */
+	public void setInstrumentation(boolean instrumentation) {
+		this.instrumentation = instrumentation;
+	}
+
+	public boolean isBinaryCodecs() {
+		return binaryCodecs;
+	}
+
+	/**
+	 * Generate parameter classes writing and reading their fields to a
+	 * ByteBuffer in a compact binary format, with a view reading table rows
+	 * in place.
+	 * 
+	 * @param binaryCodecs
+	 *            Generate binary codecs
+	 */
+	public void setBinaryCodecs(boolean binaryCodecs) {
+		this.binaryCodecs = binaryCodecs;
+	}
+
+	public boolean isJsonCodecs() {
+		return jsonCodecs;
+	}
+
+	/**
+	 * Generate parameter classes writing and reading themselves as JSON
+	 * through the JsonStream class, without reflection.
+	 * 
+	 * @param jsonCodecs
+	 *            Generate JSON writers and readers
+	 */
+	public void setJsonCodecs(boolean jsonCodecs) {
+		this.jsonCodecs = jsonCodecs;
+	}
+
+	/**
+	 * Return if DATE and TIME are generated as java.time types
+	 * 
+	 * @return true for java.time mapping
+	 */
+	public boolean isJavaTimeDates() {
+		return dateMapping == DateMapping.JAVA_TIME;
+	}
+
+	/**
+	 * Return if DATE and TIME are generated as epoch based int
+	 * 
+	 * @return true for epoch mapping
+	 */
+	public boolean isEpochDates() {
+		return dateMapping == DateMapping.EPOCH;
+	}
+
+	/**
+	 * Return if converters between Date and epoch based int are generated,
+	 * they are used by epoch mapping and by columns of DATE and TIME.
+	 * 
+	 * @return true when epoch converters are needed
+	 */
+	public boolean isEpochConverters() {
+		return isEpochDates() || columnarTables;
+	}
+
+	/**
+	 * Directory of the package relative to the source folder
+	 * 
+	 * @return Package directory, empty when there is no package
+	 */
+	public String packageDirectory() {
+		return packageName == null ? "" : packageName.replace('.', '/');
+	}
+
+	/**
+	 * Description of all options, the generation fingerprint changes when
+	 * some option changes.
+	 */
+	@Override
+	public String toString() {
+		return "package=" + packageName + ",primitiveTypes=" + primitiveTypes
+				+ ",dateMapping=" + dateMapping + ",columnarTables="
+				+ columnarTables + ",asyncCallers=" + asyncCallers
+				+ ",instrumentation=" + instrumentation + ",binaryCodecs="
+				+ binaryCodecs + ",jsonCodecs=" + jsonCodecs;
+	}
+}
@@ -1,16 +1,16 @@
 package br.com.lugaid.business;
 
-import java.io.FileWriter;
-
 import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.github.mustachejava.DefaultMustacheFactory;
 import com.github.mustachejava.Mustache;
-import com.github.mustachejava.MustacheFactory;
-import com.sap.conn.jco.JCoParameterList;
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+
 import static br.com.lugaid.helper.StringHelper.smallizeFirstChar;
 
 /**
@@ -19,7 +19,7 @@ import static br.com.lugaid.helper.StringHelper.smallizeFirstChar;
  * @author Emerson Rancoletta
  * @version = 1.0
  */
-public class HandlerClassGenerator {
+public class HandlerClassGenerator implements ClassFileGenerator {
 	private static Logger logger = LoggerFactory
 			.getLogger(HandlerClassGenerator.class);
 
@@ -30,17 +30,18 @@ public class HandlerClassGenerator {
 	private String exportClassName;
 	private String changingClassName;
 	private String tableClassName;
-	private JCoParameterList importParmList;
-	private JCoParameterList exportParmList;
-	private JCoParameterList changingParmList;
-	private JCoParameterList tableParmList;
+	private List<Sap2JavaField> importFields;
+	private List<Sap2JavaField> exportFields;
+	private List<Sap2JavaField> changingFields;
+	private List<Sap2JavaField> tableFields;
+	private GeneratorOptions options = new GeneratorOptions();
 
 	public HandlerClassGenerator(String functionMod, String mainClass,
 			String handlerClassName, String importClassName,
 			String exportClassName, String changingClassName,
-			String tableClassName, JCoParameterList importParmList,
-			JCoParameterList exportParmList, JCoParameterList changingParmList,
-			JCoParameterList tableParmList) {
+			String tableClassName, List<Sap2JavaField> importFields,
+			List<Sap2JavaField> exportFields,
+			List<Sap2JavaField> changingFields, List<Sap2JavaField> tableFields) {
 		this.functionMod = functionMod;
 		this.mainClass = mainClass;
 		this.handlerClassName = handlerClassName;
@@ -48,10 +49,18 @@ public class HandlerClassGenerator {
 		this.exportClassName = exportClassName;
 		this.changingClassName = changingClassName;
 		this.tableClassName = tableClassName;
-		this.importParmList = importParmList;
-		this.exportParmList = exportParmList;
-		this.changingParmList = changingParmList;
-		this.tableParmList = tableParmList;
+		this.importFields = importFields;
+		this.exportFields = exportFields;
+		this.changingFields = changingFields;
+		this.tableFields = tableFields;
+	}
+
+	public GeneratorOptions getOptions() {
+		return options;
+	}
+
+	public void setOptions(GeneratorOptions options) {
+		this.options = options;
 	}
 
 	public String getFunctionMod() {
@@ -110,52 +119,52 @@ public class HandlerClassGenerator {
 		this.tableClassName = tableClassName;
 	}
 
-	public JCoParameterList getImportParmList() {
-		return importParmList;
+	public List<Sap2JavaField> getImportFields() {
+		return importFields;
 	}
 
-	public void setImportParmList(JCoParameterList importParmList) {
-		this.importParmList = importParmList;
+	public void setImportFields(List<Sap2JavaField> importFields) {
+		this.importFields = importFields;
 	}
 
-	public JCoParameterList getExportParmList() {
-		return exportParmList;
+	public List<Sap2JavaField> getExportFields() {
+		return exportFields;
 	}
 
-	public void setExportParmList(JCoParameterList exportParmList) {
-		this.exportParmList = exportParmList;
+	public void setExportFields(List<Sap2JavaField> exportFields) {
+		this.exportFields = exportFields;
 	}
 
-	public JCoParameterList getChangingParmList() {
-		return changingParmList;
+	public List<Sap2JavaField> getChangingFields() {
+		return changingFields;
 	}
 
-	public void setChangingParmList(JCoParameterList changingParmList) {
-		this.changingParmList = changingParmList;
+	public void setChangingFields(List<Sap2JavaField> changingFields) {
+		this.changingFields = changingFields;
 	}
 
-	public JCoParameterList getTableParmList() {
-		return tableParmList;
+	public List<Sap2JavaField> getTableFields() {
+		return tableFields;
 	}
 
-	public void setTableParmList(JCoParameterList tableParmList) {
-		this.tableParmList = tableParmList;
+	public void setTableFields(List<Sap2JavaField> tableFields) {
+		this.tableFields = tableFields;
 	}
 
 	public boolean hasImportParameters() {
-		return importParmList != null && importParmList.getFieldCount() > 0;
+		return importFields != null && !importFields.isEmpty();
 	}
 
 	public boolean hasExportParameters() {
-		return exportParmList != null && exportParmList.getFieldCount() > 0;
+		return exportFields != null && !exportFields.isEmpty();
 	}
 
 	public boolean hasChangingParameters() {
-		return changingParmList != null && changingParmList.getFieldCount() > 0;
+		return changingFields != null && !changingFields.isEmpty();
 	}
 
 	public boolean hasTableParameters() {
-		return tableParmList != null && tableParmList.getFieldCount() > 0;
+		return tableFields != null && !tableFields.isEmpty();
 	}
 
 	public String importObjectName() {
@@ -174,13 +183,34 @@ public class HandlerClassGenerator {
 		return smallizeFirstChar(tableClassName);
 	}
 
-	public boolean writeClassFile(FileWriter fileWriter) {
+	/**
+	 * Server context and parameter objects passed to the business method of
+	 * the handler
+	 * 
+	 * @return Parameters declaration
+	 */
+	public String buildHandlerParameter() {
+		return joinParameters(true);
+	}
+
+	/**
+	 * Names of the parameter objects, in the order of
+	 * {@link #buildHandlerParameter()}
+	 * 
+	 * @return Arguments to pass the parameter objects
+	 */
+	public String buildHandlerArguments() {
+		return joinParameters(false);
+	}
+
+	@Override
+	public boolean writeClassFile(Writer writer) {
 		logger.info("Writting Handler class.");
 
-		MustacheFactory mf = new DefaultMustacheFactory();
-		Mustache mustache = mf.compile("templates/HandlerTemplate.mustache");
+		Mustache mustache = TemplateRegistry
+				.getTemplate(TemplateRegistry.HANDLER_TEMPLATE);
 		try {
-			mustache.execute(fileWriter, this).flush();
+			mustache.execute(writer, this).flush();
 			return true;
 		} catch (IOException e) {
 			logger.error("Error writting Handler class.");
@@ -188,4 +218,44 @@ public class HandlerClassGenerator {
 			return false;
 		}
 	}
+
+	private String joinParameters(boolean withTypes) {
+		StringBuffer sb = new StringBuffer();
+
+		appendParameter(sb, withTypes, "JCoServerContext", "serverContext");
+
+		if (hasImportParameters()) {
+			appendParameter(sb, withTypes, getImportClassName(),
+					importObjectName());
+		}
+
+		if (hasExportParameters()) {
+			appendParameter(sb, withTypes, getExportClassName(),
+					exportObjectName());
+		}
+
+		if (hasChangingParameters()) {
+			appendParameter(sb, withTypes, getChangingClassName(),
+					changingObjectName());
+		}
+
+		if (hasTableParameters()) {
+			appendParameter(sb, withTypes, getTableClassName(),
+					tableObjectName());
+		}
+
+		Splitter splitter = Splitter.on(',').omitEmptyStrings().trimResults();
+		Joiner joiner = Joiner.on(',').skipNulls();
+
+		return joiner.join(splitter.split(sb.toString()));
+	}
+
+	private static void appendParameter(StringBuffer sb, boolean withType,
+			String className, String objectName) {
+		if (withType) {
+			sb.append(className).append(' ');
+		}
+
+		sb.append(objectName).append(',');
+	}
 }
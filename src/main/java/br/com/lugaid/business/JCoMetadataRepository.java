@@ -0,0 +1,43 @@
+package br.com.lugaid.business;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sap.conn.jco.JCoException;
+import com.sap.conn.jco.JCoFunction;
+import com.sap.conn.jco.JCoRepository;
+
+/**
+ * Metadata repository reading function modules from SAP.
+ * 
+ * @author Emerson Rancoletta
+ * @version = 1.0
+ */
+public class JCoMetadataRepository implements MetadataRepository {
+	private static Logger logger = LoggerFactory
+			.getLogger(JCoMetadataRepository.class);
+
+	private JCoRepository repository;
+
+	public JCoMetadataRepository(JCoRepository repository) {
+		this.repository = repository;
+	}
+
+	public JCoRepository getRepository() {
+		return repository;
+	}
+
+	@Override
+	public FunctionModuleMetadata getFunctionMetadata(String functionMod)
+			throws JCoException {
+		logger.info("Get function module information for {}.", functionMod);
+
+		JCoFunction function = repository.getFunction(functionMod);
+
+		if (function == null) {
+			return null;
+		}
+
+		return FunctionModuleMetadata.fromJCoFunction(function);
+	}
+}
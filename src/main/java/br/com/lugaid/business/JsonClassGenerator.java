@@ -0,0 +1,49 @@
+package br.com.lugaid.business;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.mustachejava.Mustache;
+
+/**
+ * Class to generate the JsonStream class file, shared by the parameter classes
+ * of all function modules of a package
+ * 
+ * @author Emerson Rancoletta
+ * @version = 1.0
+ */
+public class JsonClassGenerator implements ClassFileGenerator {
+	private static Logger logger = LoggerFactory
+			.getLogger(JsonClassGenerator.class);
+
+	public static final String JSON_CLASS_NAME = "JsonStream";
+
+	private GeneratorOptions options = new GeneratorOptions();
+
+	public GeneratorOptions getOptions() {
+		return options;
+	}
+
+	public void setOptions(GeneratorOptions options) {
+		this.options = options;
+	}
+
+	@Override
+	public boolean writeClassFile(Writer writer) {
+		logger.info("Writting JsonStream class.");
+
+		Mustache mustache = TemplateRegistry
+				.getTemplate(TemplateRegistry.JSON_TEMPLATE);
+		try {
+			mustache.execute(writer, this).flush();
+			return true;
+		} catch (IOException e) {
+			logger.error("Error writting JsonStream class.");
+			logger.debug("Stack trace ", e);
+			return false;
+		}
+	}
+}
@@ -0,0 +1,24 @@
+package br.com.lugaid.business;
+
+import com.sap.conn.jco.JCoException;
+
+/**
+ * Source of function module metadata used by the generators, a SAP
+ * repository or any local implementation.
+ * 
+ * @author Emerson Rancoletta
+ * @version = 1.0
+ */
+public interface MetadataRepository {
+	/**
+	 * Return metadata of a function module
+	 * 
+	 * @param functionMod
+	 *            SAP Function Module name
+	 * @return Function module metadata, null when function module not exists
+	 * @throws JCoException
+	 *             Error reading SAP repository
+	 */
+	FunctionModuleMetadata getFunctionMetadata(String functionMod)
+			throws JCoException;
+}
@@ -0,0 +1,358 @@
+package br.com.lugaid.business;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.hash.Hashing;
+
+/**
+ * Text snapshot of function module metadata, used to generate classes
+ * without a live SAP system.
+ *
+ * The snapshot starts with the header line and the function module name,
+ * followed by one section per parameter list. Each field is one line with
+ * the nesting level, name, type, length, decimals and description separated
+ * by tab, sub fields of STRUCTURE and TABLE follow their parent with the
+ * nesting level plus one.
+ *
+ * <pre>
+ * SAPFM2JAVA-SNAPSHOT 1
+ * FM BAPI_MATERIAL_GET_DETAIL
+ * [IMPORT]
+ * 0	MATERIAL	CHAR	18	0	Material Number
+ * [EXPORT]
+ * 0	RETURN	STRUCTURE	548	0	Return Parameter
+ * 1	TYPE	CHAR	1	0	Message type
+ * </pre>
+ *
+ * @author Emerson Rancoletta
+ * @version = 1.0
+ */
+public class MetadataSnapshot {
+	public static final String FILE_EXTENSION = ".fmsnap";
+
+	private static final String HEADER = "SAPFM2JAVA-SNAPSHOT 1";
+	private static final String FM_PREFIX = "FM ";
+	private static final String IMPORT = "[IMPORT]";
+	private static final String EXPORT = "[EXPORT]";
+	private static final String CHANGING = "[CHANGING]";
+	private static final String TABLE = "[TABLE]";
+	private static final String SEPARATOR = "\t";
+
+	private MetadataSnapshot() {
+	}
+
+	/**
+	 * Write function module metadata as snapshot
+	 *
+	 * @param metadata
+	 *            Function module metadata
+	 * @param writer
+	 *            Destination of snapshot
+	 * @throws IOException
+	 *             Error writing snapshot
+	 */
+	public static void write(FunctionModuleMetadata metadata, Writer writer)
+			throws IOException {
+		writer.write(HEADER);
+		writer.write('\n');
+		writer.write(FM_PREFIX);
+		writer.write(metadata.getFunctionMod());
+		writer.write('\n');
+
+		writeSection(IMPORT, metadata.getImportFields(), writer);
+		writeSection(EXPORT, metadata.getExportFields(), writer);
+		writeSection(CHANGING, metadata.getChangingFields(), writer);
+		writeSection(TABLE, metadata.getTableFields(), writer);
+
+		writer.flush();
+	}
+
+	/**
+	 * Write snapshot file
+	 *
+	 * @param metadata
+	 *            Function module metadata
+	 * @param file
+	 *            Snapshot file
+	 * @throws IOException
+	 *             Error writing snapshot
+	 */
+	public static void writeFile(FunctionModuleMetadata metadata, Path file)
+			throws IOException {
+		try (BufferedWriter writer = Files.newBufferedWriter(file,
+				StandardCharsets.UTF_8)) {
+			write(metadata, writer);
+		}
+	}
+
+	/**
+	 * Read function module metadata from snapshot
+	 *
+	 * @param reader
+	 *            Source of snapshot
+	 * @return Function module metadata
+	 * @throws IOException
+	 *             Error reading snapshot or invalid snapshot
+	 */
+	public static FunctionModuleMetadata read(Reader reader)
+			throws IOException {
+		BufferedReader in = new BufferedReader(reader);
+
+		if (!HEADER.equals(in.readLine())) {
+			throw new IOException("Invalid snapshot header.");
+		}
+
+		String fmLine = in.readLine();
+
+		if (fmLine == null || !fmLine.startsWith(FM_PREFIX)) {
+			throw new IOException("Invalid snapshot function module.");
+		}
+
+		List<Sap2JavaField> importFields = new ArrayList<>();
+		List<Sap2JavaField> exportFields = new ArrayList<>();
+		List<Sap2JavaField> changingFields = new ArrayList<>();
+		List<Sap2JavaField> tableFields = new ArrayList<>();
+		List<Sap2JavaField> section = null;
+		List<List<Sap2JavaField>> levels = new ArrayList<>();
+		String line;
+
+		while ((line = in.readLine()) != null) {
+			if (line.isEmpty()) {
+				continue;
+			}
+
+			switch (line) {
+			case IMPORT:
+				section = importFields;
+				break;
+			case EXPORT:
+				section = exportFields;
+				break;
+			case CHANGING:
+				section = changingFields;
+				break;
+			case TABLE:
+				section = tableFields;
+				break;
+			default:
+				if (section == null) {
+					throw new IOException("Field out of section: " + line);
+				}
+
+				if (levels.isEmpty() || levels.get(0) != section) {
+					levels.clear();
+					levels.add(section);
+				}
+
+				readField(line, levels);
+				break;
+			}
+		}
+
+		return new FunctionModuleMetadata(fmLine.substring(FM_PREFIX.length()),
+				importFields, exportFields, changingFields, tableFields);
+	}
+
+	/**
+	 * Read snapshot file
+	 *
+	 * @param file
+	 *            Snapshot file
+	 * @return Function module metadata
+	 * @throws IOException
+	 *             Error reading snapshot or invalid snapshot
+	 */
+	public static FunctionModuleMetadata readFile(Path file) throws IOException {
+		try (BufferedReader reader = Files.newBufferedReader(file,
+				StandardCharsets.UTF_8)) {
+			return read(reader);
+		}
+	}
+
+	/**
+	 * Hash of snapshot content, equal hashes means same function module
+	 * interface.
+	 *
+	 * @param metadata
+	 *            Function module metadata
+	 * @return SHA-256 of snapshot as hex string
+	 */
+	public static String contentHash(FunctionModuleMetadata metadata) {
+		StringWriter sw = new StringWriter();
+
+		try {
+			write(metadata, sw);
+		} catch (IOException e) {
+			throw new IllegalStateException("Error writing snapshot.", e);
+		}
+
+		return Hashing.sha256().hashString(sw.toString(), StandardCharsets.UTF_8)
+				.toString();
+	}
+
+	/**
+	 * Name of snapshot file for a function module, namespace slashes are not
+	 * allowed in file names.
+	 *
+	 * @param functionMod
+	 *            SAP Function Module name
+	 * @return File name
+	 */
+	public static String fileName(String functionMod) {
+		return functionMod.replace('/', '#').concat(FILE_EXTENSION);
+	}
+
+	private static void writeSection(String section,
+			List<Sap2JavaField> fields, Writer writer) throws IOException {
+		writer.write(section);
+		writer.write('\n');
+
+		if (fields != null) {
+			writeFields(fields, 0, writer);
+		}
+	}
+
+	private static void writeFields(List<Sap2JavaField> fields, int level,
+			Writer writer) throws IOException {
+		for (Sap2JavaField field : fields) {
+			writer.write(Integer.toString(level));
+			writer.write(SEPARATOR);
+			writer.write(field.getSapName());
+			writer.write(SEPARATOR);
+			writer.write(field.getSapType());
+			writer.write(SEPARATOR);
+			writer.write(Integer.toString(field.getSapLength()));
+			writer.write(SEPARATOR);
+			writer.write(Integer.toString(field.getSapDecimals()));
+			writer.write(SEPARATOR);
+			writer.write(escape(field.getSapDescription()));
+			writer.write('\n');
+
+			if (!field.isFinalLevel() && field.getListSubField() != null) {
+				writeFields(field.getListSubField(), level + 1, writer);
+			}
+		}
+	}
+
+	/**
+	 * Read one field line, levels holds the field lists of current parents
+	 * where levels[n] receives the fields of nesting level n.
+	 */
+	private static void readField(String line, List<List<Sap2JavaField>> levels)
+			throws IOException {
+		String[] columns = line.split(SEPARATOR, 6);
+
+		if (columns.length != 6) {
+			throw new IOException("Invalid snapshot field: " + line);
+		}
+
+		try {
+			int level = Integer.parseInt(columns[0]);
+
+			if (level < 0 || level >= levels.size()) {
+				throw new IOException("Invalid snapshot field level: " + line);
+			}
+
+			while (levels.size() > level + 1) {
+				levels.remove(levels.size() - 1);
+			}
+
+			String type = columns[2];
+			int length = Integer.parseInt(columns[3]);
+			int decimals = Integer.parseInt(columns[4]);
+			String description = unescape(columns[5]);
+			Sap2JavaField field;
+
+			if (type.equals("STRUCTURE") || type.equals("TABLE")) {
+				List<Sap2JavaField> subFields = new ArrayList<>();
+				field = new Sap2JavaField(columns[1], description, type,
+						length, decimals, subFields);
+				levels.get(level).add(field);
+				levels.add(subFields);
+			} else {
+				field = new Sap2JavaField(columns[1], description, type,
+						length, decimals);
+				levels.get(level).add(field);
+			}
+		} catch (NumberFormatException e) {
+			throw new IOException("Invalid snapshot field: " + line, e);
+		}
+	}
+
+	private static String escape(String value) {
+		if (value == null) {
+			return "";
+		}
+
+		StringBuilder sb = new StringBuilder(value.length());
+
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+
+			switch (c) {
+			case '\\':
+				sb.append("\\\\");
+				break;
+			case '\t':
+				sb.append("\\t");
+				break;
+			case '\n':
+				sb.append("\\n");
+				break;
+			case '\r':
+				sb.append("\\r");
+				break;
+			default:
+				sb.append(c);
+				break;
+			}
+		}
+
+		return sb.toString();
+	}
+
+	private static String unescape(String value) {
+		if (value.indexOf('\\') < 0) {
+			return value;
+		}
+
+		StringBuilder sb = new StringBuilder(value.length());
+
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+
+			if (c == '\\' && i + 1 < value.length()) {
+				char next = value.charAt(++i);
+
+				switch (next) {
+				case 't':
+					sb.append('\t');
+					break;
+				case 'n':
+					sb.append('\n');
+					break;
+				case 'r':
+					sb.append('\r');
+					break;
+				default:
+					sb.append(next);
+					break;
+				}
+			} else {
+				sb.append(c);
+			}
+		}
+
+		return sb.toString();
+	}
+}
@@ -1,16 +1,14 @@
 package br.com.lugaid.business;
 
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.github.mustachejava.DefaultMustacheFactory;
 import com.github.mustachejava.Mustache;
-import com.github.mustachejava.MustacheFactory;
 import com.google.common.base.Joiner;
 import com.google.common.base.Splitter;
 
@@ -20,12 +18,13 @@ import com.google.common.base.Splitter;
  * @author Emerson Rancoletta
  * @version = 1.0
  */
-public class ParameterClassGenerator {
+public class ParameterClassGenerator implements ClassFileGenerator {
 	private static Logger logger = LoggerFactory
-			.getLogger(HandlerClassGenerator.class);
+			.getLogger(ParameterClassGenerator.class);
 	private String paramClassName;
 	private List<Sap2JavaField> fields;
 	private Sap2JavaField parentField;
+	private GeneratorOptions options = new GeneratorOptions();
 
 	public ParameterClassGenerator(String paramClassName,
 			List<Sap2JavaField> fields, Sap2JavaField parentField) {
@@ -39,6 +38,14 @@ public class ParameterClassGenerator {
 		this.fields = fields;
 	}
 
+	public GeneratorOptions getOptions() {
+		return options;
+	}
+
+	public void setOptions(GeneratorOptions options) {
+		this.options = options;
+	}
+
 	public String getParamClassName() {
 		return paramClassName;
 	}
@@ -63,6 +70,120 @@ public class ParameterClassGenerator {
 		this.parentField = parentField;
 	}
 
+	/**
+	 * Return if the class maps a row of a TABLE, rows are filled with field
+	 * positions resolved once per table.
+	 * 
+	 * @return true for classes of table rows
+	 */
+	public boolean isTableRow() {
+		return parentField != null && parentField.isTable();
+	}
+
+	/**
+	 * Return if the class maps a parameter list of the function module, only
+	 * active parameters are written to the list
+	 * 
+	 * @return true for import, export, changing and table classes
+	 */
+	public boolean isParameterList() {
+		return parentField == null;
+	}
+
+	/**
+	 * Return if the class keeps the rows of a TABLE as columns
+	 * 
+	 * @return true for table rows with columnar tables option
+	 */
+	public boolean isColumnar() {
+		return isTableRow() && options.isColumnarTables();
+	}
+
+	/**
+	 * Return the JCo record mapped by the class
+	 * 
+	 * @return JCo interface of the record
+	 */
+	public String jcoRecordType() {
+		if (parentField == null) {
+			return "JCoParameterList";
+		} else if (parentField.isTable()) {
+			return "JCoTable";
+		} else {
+			return "JCoStructure";
+		}
+	}
+
+	/**
+	 * Return bytes taken by the fixed width fields in the binary format
+	 * 
+	 * @return Size of the fixed part of the record
+	 */
+	public int binaryHeadSize() {
+		int size = 0;
+
+		for (Sap2JavaField field : fields) {
+			size += field.getBinaryWidth();
+		}
+
+		return size;
+	}
+
+	/**
+	 * Return fixed width fields with their offset in the record
+	 * 
+	 * @return Fields written first
+	 */
+	public List<BinaryField> binaryFixedFields() {
+		List<BinaryField> binaryFields = new ArrayList<>();
+		int offset = 0;
+
+		for (Sap2JavaField field : fields) {
+			if (field.isBinaryFixed()) {
+				binaryFields.add(new BinaryField(field, offset));
+				offset += field.getBinaryWidth();
+			}
+		}
+
+		return binaryFields;
+	}
+
+	/**
+	 * Return variable width fields with their position after the fixed part
+	 * 
+	 * @return Fields written after the fixed ones
+	 */
+	public List<BinaryField> binaryVariableFields() {
+		List<BinaryField> binaryFields = new ArrayList<>();
+
+		for (Sap2JavaField field : fields) {
+			if (!field.isBinaryFixed()) {
+				binaryFields.add(new BinaryField(field, binaryFields.size()));
+			}
+		}
+
+		return binaryFields;
+	}
+
+	public int binaryVariableCount() {
+		return binaryVariableFields().size();
+	}
+
+	/**
+	 * Return fields written to JSON, the first one is written without comma
+	 * 
+	 * @return Fields in JSON order
+	 */
+	public List<JsonField> jsonFields() {
+		List<JsonField> jsonFields = new ArrayList<>();
+
+		for (Sap2JavaField field : fields) {
+			jsonFields.add(new JsonField(field, jsonFields.isEmpty()));
+		}
+
+		return jsonFields;
+	}
+
 	public String construcParams() {
 		StringBuffer sb = new StringBuffer();
 
@@ -77,13 +198,14 @@ public class ParameterClassGenerator {
 		return joiner.join(splitter.split(sb.toString()));
 	}
 
-	public boolean writeClassFile(FileWriter fileWriter) {
+	@Override
+	public boolean writeClassFile(Writer writer) {
 		logger.info("Writting Handler class.");
 
-		MustacheFactory mf = new DefaultMustacheFactory();
-		Mustache mustache = mf.compile("templates/ParameterTemplate.mustache");
+		Mustache mustache = TemplateRegistry
+				.getTemplate(TemplateRegistry.PARAMETER_TEMPLATE);
 		try {
-			mustache.execute(fileWriter, this).flush();
+			mustache.execute(writer, this).flush();
 			return true;
 		} catch (IOException e) {
 			logger.error("Error writting Handler class.");
@@ -92,36 +214,73 @@ public class ParameterClassGenerator {
 		}
 	}
 
-	public String subClasses() {
-		StringBuffer sb = new StringBuffer();
+	/**
+	 * Generators of nested classes for STRUCTURE and TABLE fields, the
+	 * template renders them through a recursive partial straight into the
+	 * output writer.
+	 * 
+	 * @return Generators of nested classes
+	 */
+	public List<ParameterClassGenerator> subClasses() {
+		List<ParameterClassGenerator> subClasses = new ArrayList<>();
 
 		for (Sap2JavaField field : fields) {
 			if (!field.isFinalLevel()) {
-				ParameterClassGenerator subClass = new ParameterClassGenerator(
-						field.getJavaClassName(), field.getListSubField(),
-						field);
+				if (logger.isDebugEnabled()) {
+					logger.debug("Building sub class {}.",
+							field.getJavaClassName());
+				}
 
-				sb.append(subClass.getClassContent());
+				ParameterClassGenerator subClass = new ParameterClassGenerator(
+						field.getJavaClassName(), field.getListSubField(), field);
+				subClass.setOptions(options);
+				subClasses.add(subClass);
 			}
 		}
 
-		return sb.toString();
+		return subClasses;
 	}
 
-	private String getClassContent() {
-		logger.info("Building sub class {}.", paramClassName);
+	/**
+	 * Field of the binary format, offset of fixed fields in bytes and of
+	 * variable fields in fields after the fixed part
+	 */
+	public static class BinaryField {
+		private Sap2JavaField field;
+		private int binaryOffset;
 
-		StringWriter sw = new StringWriter();
-		MustacheFactory mf = new DefaultMustacheFactory();
-		Mustache mustache = mf
-				.compile("templates/ParameterTemplateClass.mustache");
-		try {
-			mustache.execute(sw, this).flush();
-			return sw.toString();
-		} catch (IOException e) {
-			logger.error("Error to build class {}.", paramClassName);
-			logger.debug("Stack trace ", e);
-			return "";
+		public BinaryField(Sap2JavaField field, int binaryOffset) {
+			this.field = field;
+			this.binaryOffset = binaryOffset;
+		}
+
+		public Sap2JavaField getField() {
+			return field;
+		}
+
+		public int getBinaryOffset() {
+			return binaryOffset;
+		}
+	}
+
+	/**
+	 * Field written to JSON
+	 */
+	public static class JsonField {
+		private Sap2JavaField field;
+		private boolean first;
+
+		public JsonField(Sap2JavaField field, boolean first) {
+			this.field = field;
+			this.first = first;
+		}
+
+		public Sap2JavaField getField() {
+			return field;
+		}
+
+		public boolean isFirst() {
+			return first;
 		}
 	}
 }
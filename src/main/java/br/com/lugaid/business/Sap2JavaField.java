@@ -6,13 +6,17 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.sap.conn.jco.JCoField;
 import com.sap.conn.jco.JCoFieldIterator;
+import br.com.lugaid.business.GeneratorOptions.DateMapping;
 import static br.com.lugaid.helper.StringHelper.captalizeFirstChar;
-import static br.com.lugaid.helper.StringHelper.smallizeFirstChar;
-import static br.com.lugaid.helper.StringHelper.titleize;
+import static br.com.lugaid.helper.StringHelper.toCamelCase;
 
 /**
  * Class to map SAP types to Java types
  * 
+ * Java names are derived once per field and kept, templates read them many
+ * times for each field. Java types depend on the generator options applied
+ * to the field.
+ * 
  * @author Emerson Rancoletta
  * @version = 1.0
  */
@@ -26,6 +30,12 @@ public class Sap2JavaField {
 	private int sapDecimals;
 	private List<Sap2JavaField> listSubField;
 
+	private String javaAttributeName;
+	private String javaAttributeType;
+	private String getterSetterName;
+	private String javaClassName;
+	private GeneratorOptions options;
+
 	/**
 	 * Constructor for final types, not for STRUCTURES or TABLES that have
 	 * subtypes, for these types use the constructor with sub fields list as
@@ -67,6 +77,30 @@ public class Sap2JavaField {
 		this.listSubField = listSubField;
 	}
 
+	/**
+	 * Apply generator options to fields and their sub fields, Java types are
+	 * derived again when options change.
+	 * 
+	 * @param fields
+	 *            Fields
+	 * @param options
+	 *            Generator options
+	 */
+	public static void applyOptions(List<Sap2JavaField> fields,
+			GeneratorOptions options) {
+		for (Sap2JavaField field : fields) {
+			if (field.options != options) {
+				field.options = options;
+				field.javaAttributeType = null;
+				field.javaClassName = null;
+			}
+
+			if (!field.isFinalLevel()) {
+				applyOptions(field.getListSubField(), options);
+			}
+		}
+	}
+
 	/**
 	 * Return SAP parameter name
 	 * 
@@ -91,14 +125,17 @@ public class Sap2JavaField {
 	 * @return JAVA attribute name
 	 */
 	public String getJavaAttributeName() {
-		String javaName = smallizeFirstChar(titleize(
-				sapName.replaceAll("[-_.]", " ")).replace(" ", ""));
+		if (javaAttributeName == null) {
+			String javaName = toCamelCase(sapName, false);
 
-		if (this.isTable()) {
-			javaName = javaName.concat("s");
+			if (this.isTable()) {
+				javaName = javaName.concat("s");
+			}
+
+			javaAttributeName = javaName;
 		}
 
-		return javaName;
+		return javaAttributeName;
 	}
 
 	/**
@@ -107,7 +144,11 @@ public class Sap2JavaField {
 	 * @return JAVA getter and setter name
 	 */
 	public String getGetterSetterName() {
-		return captalizeFirstChar(getJavaAttributeName());
+		if (getterSetterName == null) {
+			getterSetterName = captalizeFirstChar(getJavaAttributeName());
+		}
+
+		return getterSetterName;
 	}
 
 	/**
@@ -125,38 +166,64 @@ public class Sap2JavaField {
 	 * @return JAVA data type
 	 */
 	public String getJavaAttributeType() {
+		if (javaAttributeType == null) {
+			javaAttributeType = mapJavaAttributeType();
+		}
+
+		return javaAttributeType;
+	}
+
+	private String mapJavaAttributeType() {
 		String type = "";
 
 		if (this.isStructure() || this.isTable()) {
-			type = captalizeFirstChar(titleize(sapName.replaceAll("[-_.]", " "))
-					.replace(" ", ""));
+			type = toCamelCase(sapName, true);
 
-			if (this.isTable()) {
+			if (this.isTable() && !this.isColumnarTable()) {
 				type = "List<".concat(type).concat(">");
 			}
 
 		} else {
+			boolean primitive = options != null && options.isPrimitiveTypes();
+
 			switch (sapType) {
 			case "CHAR":
 				type = "String";
 				break;
 			case "DATE":
-				type = "Date";
+				type = dateType("LocalDate");
 				break;
 			case "STRING":
 				type = "String";
 				break;
 			case "NUM":
-				type = "Long";
+			case "INT8":
+				type = primitive ? "long" : "Long";
 				break;
 			case "BCD":
+			case "DECF16":
+			case "DECF34":
 				type = "BigDecimal";
 				break;
 			case "INT":
-				type = "Integer";
+			case "INT1":
+			case "INT2":
+				type = primitive ? "int" : "Integer";
+				break;
+			case "FLOAT":
+				type = primitive ? "double" : "Double";
+				break;
+			case "BYTE":
+			case "RAW":
+			case "XSTRING":
+				type = "byte[]";
+				break;
+			case "UTCLONG":
+				type = options != null && options.isJavaTimeDates() ? "Instant"
+						: "String";
 				break;
 			case "TIME":
-				type = "Date";
+				type = dateType("LocalTime");
 				break;
 			default:
 				type = "UNAVAILABLE";
@@ -167,18 +234,34 @@ public class Sap2JavaField {
 		return type;
 	}
 
+	/**
+	 * Java type of DATE and TIME by date mapping option
+	 */
+	private String dateType(String javaTimeType) {
+		if (options != null && options.isJavaTimeDates()) {
+			return javaTimeType;
+		} else if (options != null && options.isEpochDates()) {
+			return "int";
+		}
+
+		return "Date";
+	}
+
 	/**
 	 * Return Java class related to this field
 	 * 
 	 * @return Java class
 	 */
 	public String getJavaClassName() {
-		if (this.isTable()) {
-			return captalizeFirstChar(titleize(sapName.replaceAll("[-_.]", " "))
-					.replace(" ", ""));
-		} else {
-			return captalizeFirstChar(getJavaAttributeType());
+		if (javaClassName == null) {
+			if (this.isTable()) {
+				javaClassName = toCamelCase(sapName, true);
+			} else {
+				javaClassName = captalizeFirstChar(getJavaAttributeType());
+			}
 		}
+
+		return javaClassName;
 	}
 
 	/**
@@ -187,19 +270,395 @@ public class Sap2JavaField {
 	 * @return JCo Type
 	 */
 	public String getJCoReturnType() {
-		if (sapType.equals("INT")) {
+		switch (sapType) {
+		case "INT":
+		case "INT1":
+		case "INT2":
 			return "Int";
-		} else if (sapType.equals("TIME")) {
+		case "NUM":
+		case "INT8":
+			return "Long";
+		case "FLOAT":
+			return "Double";
+		case "BYTE":
+		case "RAW":
+		case "XSTRING":
+			return "ByteArray";
+		case "UTCLONG":
+			return "String";
+		case "DATE":
+			return "Date";
+		case "TIME":
 			return "Time";
-		} else if (this.isStructure()) {
+		case "STRUCTURE":
 			return "Structure";
-		} else if (this.isTable()) {
+		case "TABLE":
 			return "Table";
-		} else {
+		default:
+			return getJavaAttributeType();
+		}
+	}
+
+	/**
+	 * Return method of generated class converting the value read from JCo to
+	 * the Java type, DATE and TIME are converted when not mapped to Date and
+	 * UTCLONG when mapped to Instant.
+	 * 
+	 * @return Converter method, null when value is not converted
+	 */
+	public String getJCoReadConverter() {
+		String suffix = dateConverterSuffix();
+
+		return suffix == null ? null : "to".concat(suffix);
+	}
+
+	/**
+	 * Return method of generated class converting the Java value to the value
+	 * written to JCo, BCD values are set to the scale of the field.
+	 * 
+	 * @return Converter method, null when value is not converted
+	 */
+	public String getJCoWriteConverter() {
+		if (isScaledDecimal()) {
+			return "scale";
+		}
+
+		String suffix = dateConverterSuffix();
+
+		return suffix == null ? null : "from".concat(suffix);
+	}
+
+	/**
+	 * Return arguments passed to the write converter after the value
+	 * 
+	 * @return Arguments starting with comma, null without arguments
+	 */
+	public String getJCoWriteArguments() {
+		return isScaledDecimal() ? ", ".concat(String.valueOf(sapDecimals))
+				: null;
+	}
+
+	/**
+	 * Return if the field is a packed decimal with a fixed scale, DECF16 and
+	 * DECF34 are decimal floating points without fixed scale.
+	 * 
+	 * @return just BCD returns true
+	 */
+	public boolean isScaledDecimal() {
+		return sapType.equals("BCD");
+	}
+
+	private String dateConverterSuffix() {
+		if (options == null || options.getDateMapping() == DateMapping.DATE) {
+			return null;
+		}
+
+		boolean javaTime = options.isJavaTimeDates();
+
+		switch (sapType) {
+		case "DATE":
+			return javaTime ? "LocalDate" : "EpochDay";
+		case "TIME":
+			return javaTime ? "LocalTime" : "SecondOfDay";
+		case "UTCLONG":
+			return javaTime ? "Instant" : null;
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Return element type of the column array keeping this field in columnar
+	 * tables, INT, NUM, FLOAT, DATE and TIME are kept as primitives, CHAR as
+	 * characters of fixed width and BYTE as bytes of fixed width.
+	 * 
+	 * @return Java type of column elements
+	 */
+	public String getColumnType() {
+		if (!this.isFinalLevel()) {
+			return getJavaClassName();
+		}
+
+		switch (sapType) {
+		case "CHAR":
+			return "char";
+		case "BYTE":
+		case "RAW":
+			return "byte";
+		case "NUM":
+		case "INT8":
+			return "long";
+		case "FLOAT":
+			return "double";
+		case "INT":
+		case "INT1":
+		case "INT2":
+		case "DATE":
+		case "TIME":
+			return "int";
+		default:
+			return getJavaAttributeType();
+		}
+	}
+
+	/**
+	 * Return if the field is kept in a column of characters with the SAP
+	 * length as width.
+	 * 
+	 * @return just CHAR returns true
+	 */
+	public boolean isCharColumn() {
+		return sapType.equals("CHAR");
+	}
+
+	/**
+	 * Return if the field is kept in a column of bytes with the SAP length as
+	 * width.
+	 * 
+	 * @return just BYTE returns true
+	 */
+	public boolean isByteColumn() {
+		return sapType.equals("BYTE") || sapType.equals("RAW");
+	}
+
+	/**
+	 * Return if the column keeps one array per row, XSTRING has no fixed
+	 * length.
+	 * 
+	 * @return just XSTRING returns true
+	 */
+	public boolean isByteArrayColumn() {
+		return sapType.equals("XSTRING");
+	}
+
+	/**
+	 * Return the codec writing and reading the field in the binary format,
+	 * the generated class writes with write plus codec and reads with read
+	 * plus codec. Nullable fixed width values start with a null flag byte.
+	 * 
+	 * @return Codec name, null for structures and tables
+	 */
+	public String getBinaryCodec() {
+		if (!this.isFinalLevel()) {
+			return null;
+		}
+
+		switch (getJavaAttributeType()) {
+		case "String":
+			return sapType.equals("CHAR") ? "Chars" : "String";
+		case "int":
+			return "Int";
+		case "Integer":
+			return "NullableInt";
+		case "long":
+			return "Long";
+		case "Long":
+			return "NullableLong";
+		case "double":
+			return "Double";
+		case "Double":
+			return "NullableDouble";
+		case "BigDecimal":
+			if (!isScaledDecimal()) {
+				return "Number";
+			}
+
+			return sapLength <= 9 ? "Decimal" : "WideDecimal";
+		case "byte[]":
+			return isByteColumn() ? "Bytes" : "ByteArray";
+		default:
 			return getJavaAttributeType();
 		}
 	}
 
+	/**
+	 * Return bytes taken by the field in the binary format, CHAR takes two
+	 * bytes per character and BCD up to 17 digits is kept as unscaled long.
+	 * 
+	 * @return Width in bytes, 0 for fields of variable width
+	 */
+	public int getBinaryWidth() {
+		String codec = getBinaryCodec();
+
+		if (codec == null) {
+			return 0;
+		}
+
+		switch (codec) {
+		case "Chars":
+			return 1 + sapLength * 2;
+		case "Bytes":
+			return 1 + sapLength;
+		case "Int":
+			return 4;
+		case "NullableInt":
+			return 5;
+		case "Long":
+		case "Double":
+			return 8;
+		case "NullableLong":
+		case "NullableDouble":
+		case "Decimal":
+		case "Date":
+		case "LocalDate":
+		case "LocalTime":
+			return 9;
+		case "Instant":
+			return 13;
+		case "WideDecimal":
+			return 17;
+		default:
+			return 0;
+		}
+	}
+
+	/**
+	 * Return if the field has a fixed position in the binary format, fields
+	 * of variable width follow the fixed ones prefixed by their length
+	 * 
+	 * @return true for fields of fixed width
+	 */
+	public boolean isBinaryFixed() {
+		return getBinaryWidth() > 0;
+	}
+
+	/**
+	 * Return the JsonStream method suffix writing and reading the field, the
+	 * generated class writes with write plus codec and reads with next plus
+	 * codec
+	 * 
+	 * @return Codec name, null for structures and tables
+	 */
+	public String getJsonCodec() {
+		if (!this.isFinalLevel()) {
+			return null;
+		}
+
+		switch (getJavaAttributeType()) {
+		case "int":
+			return "Int";
+		case "Integer":
+			return "NullableInt";
+		case "long":
+			return "Long";
+		case "Long":
+			return "NullableLong";
+		case "double":
+			return "Double";
+		case "Double":
+			return "NullableDouble";
+		case "BigDecimal":
+			return "Decimal";
+		case "byte[]":
+			return "Bytes";
+		default:
+			return getJavaAttributeType();
+		}
+	}
+
+	/**
+	 * Return arguments passed to the binary codec after the value
+	 * 
+	 * @return Arguments starting with comma, null without arguments
+	 */
+	public String getBinaryArguments() {
+		String codec = getBinaryCodec();
+
+		if (codec == null) {
+			return null;
+		}
+
+		switch (codec) {
+		case "Chars":
+		case "Bytes":
+			return ", ".concat(String.valueOf(sapLength));
+		case "Decimal":
+		case "WideDecimal":
+			return ", ".concat(String.valueOf(sapDecimals));
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Return if the field is kept in a column of epoch days or seconds of day.
+	 * 
+	 * @return just DATE and TIME return true
+	 */
+	public boolean isDateColumn() {
+		return sapType.equals("DATE") || sapType.equals("TIME");
+	}
+
+	/**
+	 * Return method converting the value read from JCo to the column element
+	 * 
+	 * @return Converter method, null when value is not converted
+	 */
+	public String getColumnReadConverter() {
+		if (!isDateColumn()) {
+			return getJCoReadConverter();
+		}
+
+		return dateColumnConverter("toEpochDay", "toSecondOfDay");
+	}
+
+	/**
+	 * Return method converting the column element to the value written to JCo
+	 * 
+	 * @return Converter method, null when value is not converted
+	 */
+	public String getColumnWriteConverter() {
+		if (!isDateColumn()) {
+			return getJCoWriteConverter();
+		}
+
+		return dateColumnConverter("fromEpochDay", "fromSecondOfDay");
+	}
+
+	/**
+	 * Return method converting the column element to the Java type
+	 * 
+	 * @return Converter method, null when value is not converted
+	 */
+	public String getColumnGetConverter() {
+		if (!isDateColumn() || options.isEpochDates()) {
+			return null;
+		} else if (options.isJavaTimeDates()) {
+			return dateColumnConverter("localDateOfEpochDay",
+					"localTimeOfSecondOfDay");
+		}
+
+		return getColumnWriteConverter();
+	}
+
+	/**
+	 * Return method converting the Java type to the column element
+	 * 
+	 * @return Converter method, null when value is not converted
+	 */
+	public String getColumnSetConverter() {
+		if (!isDateColumn() || options.isEpochDates()) {
+			return null;
+		} else if (options.isJavaTimeDates()) {
+			return dateColumnConverter("epochDayOfLocalDate",
+					"secondOfDayOfLocalTime");
+		}
+
+		return getColumnReadConverter();
+	}
+
+	private String dateColumnConverter(String dateConverter,
+			String timeConverter) {
+		switch (sapType) {
+		case "DATE":
+			return dateConverter;
+		case "TIME":
+			return timeConverter;
+		default:
+			return null;
+		}
+	}
+
 	/**
 	 * Get SAP length
 	 * 
@@ -255,6 +714,16 @@ public class Sap2JavaField {
 		return sapType.equals("TABLE");
 	}
 
+	/**
+	 * Return if it is a TABLE generated as columns instead of a list of rows.
+	 * 
+	 * @return just TABLE with columnar tables option returns true.
+	 */
+	public boolean isColumnarTable() {
+		return this.isTable() && options != null
+				&& options.isColumnarTables();
+	}
+
 	/**
 	 * Transform SAP field list to a easy to handle class Sap2JavaField
 	 * 
@@ -269,9 +738,11 @@ public class Sap2JavaField {
 		while (parmIterator.hasNextField()) {
 			JCoField field = parmIterator.nextField();
 
-			logger.info("Field {} type {} length {} decimal {}.",
-					field.getName(), field.getTypeAsString(),
-					field.getLength(), field.getDecimals());
+			if (logger.isDebugEnabled()) {
+				logger.debug("Field {} type {} length {} decimal {}.",
+						field.getName(), field.getTypeAsString(),
+						field.getLength(), field.getDecimals());
+			}
 
 			if (field.getTypeAsString().equals("STRUCTURE")) {
 				List<Sap2JavaField> subFields = mapTypes(field.getStructure()
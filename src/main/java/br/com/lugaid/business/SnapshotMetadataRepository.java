@@ -0,0 +1,104 @@
+package br.com.lugaid.business;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sap.conn.jco.JCoException;
+
+/**
+ * Metadata repository reading function modules from snapshot files of a
+ * directory. When a source repository is informed the metadata is read from
+ * the source and saved as snapshot, to be used later without SAP.
+ *
+ * @author Emerson Rancoletta
+ * @version = 1.0
+ */
+public class SnapshotMetadataRepository implements MetadataRepository {
+	private static Logger logger = LoggerFactory
+			.getLogger(SnapshotMetadataRepository.class);
+
+	private Path directory;
+	private MetadataRepository source;
+
+	/**
+	 * Constructor to read snapshots
+	 *
+	 * @param directory
+	 *            Directory of snapshot files
+	 */
+	public SnapshotMetadataRepository(Path directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Constructor to save snapshots of metadata read from source
+	 *
+	 * @param directory
+	 *            Directory of snapshot files
+	 * @param source
+	 *            Repository where metadata is read
+	 */
+	public SnapshotMetadataRepository(Path directory, MetadataRepository source) {
+		this(directory);
+		this.source = source;
+	}
+
+	public Path getDirectory() {
+		return directory;
+	}
+
+	public MetadataRepository getSource() {
+		return source;
+	}
+
+	@Override
+	public FunctionModuleMetadata getFunctionMetadata(String functionMod)
+			throws JCoException {
+		Path file = directory.resolve(MetadataSnapshot.fileName(functionMod));
+
+		try {
+			if (source != null) {
+				FunctionModuleMetadata metadata = source
+						.getFunctionMetadata(functionMod);
+
+				if (metadata != null) {
+					logger.info("Saving snapshot {}.", file);
+					Files.createDirectories(directory);
+					MetadataSnapshot.writeFile(metadata, file);
+				}
+
+				return metadata;
+			}
+
+			if (!Files.exists(file)) {
+				logger.error("Snapshot {} not found.", file);
+				return null;
+			}
+
+			logger.info("Reading snapshot {}.", file);
+
+			FunctionModuleMetadata metadata = MetadataSnapshot.readFile(file);
+
+			// A renamed or copied file must not generate the wrong function
+			// module
+			if (!functionMod.equalsIgnoreCase(metadata.getFunctionMod())) {
+				logger.error("Snapshot {} is of function module {}.", file,
+						metadata.getFunctionMod());
+				throw new IllegalStateException(String.format(
+						"Snapshot %s is of function module %s, expected %s.",
+						file, metadata.getFunctionMod(), functionMod));
+			}
+
+			return metadata;
+		} catch (IOException e) {
+			logger.error("Error on snapshot {}.", file);
+			logger.debug("Stack trace ", e);
+			throw new IllegalStateException(String.format(
+					"Error on snapshot %s.", file), e);
+		}
+	}
+}
@@ -0,0 +1,134 @@
+package br.com.lugaid.business;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.mustachejava.DefaultMustacheFactory;
+import com.github.mustachejava.Mustache;
+import com.github.mustachejava.MustacheFactory;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+
+/**
+ * Templates compiled once per process and shared by all generators. The
+ * compiled templates are thread safe, so they are used by many generations at
+ * the same time.
+ *
+ * Templates are loaded from classpath and, when not found, from the working
+ * directory.
+ *
+ * @author Emerson Rancoletta
+ * @version = 1.0
+ */
+public class TemplateRegistry {
+	private static Logger logger = LoggerFactory
+			.getLogger(TemplateRegistry.class);
+
+	public static final String CALLER_TEMPLATE = "templates/CallerTemplate.mustache";
+	public static final String HANDLER_TEMPLATE = "templates/HandlerTemplate.mustache";
+	public static final String PARAMETER_TEMPLATE = "templates/ParameterTemplate.mustache";
+	public static final String PARAMETER_CLASS_TEMPLATE = "templates/ParameterTemplateClass.mustache";
+	public static final String PARAMETER_CONVERTERS_TEMPLATE = "templates/ParameterTemplateConverters.mustache";
+	public static final String PARAMETER_COLUMNS_TEMPLATE = "templates/ParameterTemplateColumns.mustache";
+	public static final String PARAMETER_BINARY_TEMPLATE = "templates/ParameterTemplateBinary.mustache";
+	public static final String PARAMETER_JSON_TEMPLATE = "templates/ParameterTemplateJson.mustache";
+	public static final String METRICS_TEMPLATE = "templates/CallMetricsTemplate.mustache";
+	public static final String JSON_TEMPLATE = "templates/JsonStreamTemplate.mustache";
+
+	private static final String[] TEMPLATES = { CALLER_TEMPLATE,
+			HANDLER_TEMPLATE, PARAMETER_TEMPLATE, PARAMETER_CLASS_TEMPLATE,
+			PARAMETER_CONVERTERS_TEMPLATE, PARAMETER_COLUMNS_TEMPLATE,
+			PARAMETER_BINARY_TEMPLATE, PARAMETER_JSON_TEMPLATE,
+			METRICS_TEMPLATE, JSON_TEMPLATE };
+
+	private static final MustacheFactory factory = new DefaultMustacheFactory();
+	private static final ConcurrentMap<String, Mustache> templates = new ConcurrentHashMap<>();
+	private static volatile String templateVersion;
+
+	private TemplateRegistry() {
+	}
+
+	/**
+	 * Return a compiled template, the template is compiled on first use.
+	 *
+	 * @param name
+	 *            Template name
+	 * @return Compiled template
+	 */
+	public static Mustache getTemplate(String name) {
+		Mustache mustache = templates.get(name);
+
+		if (mustache == null) {
+			synchronized (factory) {
+				mustache = templates.get(name);
+
+				if (mustache == null) {
+					logger.info("Compiling template {}.", name);
+
+					mustache = factory.compile(name);
+					templates.put(name, mustache);
+				}
+			}
+		}
+
+		return mustache;
+	}
+
+	/**
+	 * Compile all templates, errors on templates are found before the
+	 * generation starts.
+	 */
+	public static void preload() {
+		for (String template : TEMPLATES) {
+			getTemplate(template);
+		}
+	}
+
+	/**
+	 * Hash of all templates, changes when any template changes.
+	 *
+	 * @return SHA-256 of templates as hex string
+	 * @throws IOException
+	 *             Error reading templates
+	 */
+	public static String templateVersion() throws IOException {
+		if (templateVersion == null) {
+			Hasher hasher = Hashing.sha256().newHasher();
+
+			for (String template : TEMPLATES) {
+				try (InputStream in = openTemplate(template)) {
+					hasher.putBytes(ByteStreams.toByteArray(in));
+				}
+			}
+
+			templateVersion = hasher.hash().toString();
+		}
+
+		return templateVersion;
+	}
+
+	/**
+	 * Open template from classpath or working directory like the template
+	 * compiler does.
+	 */
+	private static InputStream openTemplate(String template)
+			throws IOException {
+		InputStream in = TemplateRegistry.class.getClassLoader()
+				.getResourceAsStream(template);
+
+		if (in == null) {
+			in = Files.newInputStream(FileSystems.getDefault()
+					.getPath(template));
+		}
+
+		return in;
+	}
+}
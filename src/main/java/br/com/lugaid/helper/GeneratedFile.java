@@ -0,0 +1,192 @@
+package br.com.lugaid.helper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write a generated file into a temporary file of the same directory, the
+ * target is replaced by an atomic move only when the content is different,
+ * so unchanged files keep their modification time.
+ *
+ * @author Emerson Rancoletta
+ * @version 1.0
+ */
+public class GeneratedFile implements Closeable {
+	private static final int BUFFER_SIZE = 8192;
+	private static final AtomicLong tempCounter = new AtomicLong();
+
+	/**
+	 * Result of commit
+	 */
+	public enum Result {
+		CREATED, UPDATED, UNCHANGED
+	}
+
+	private Path target;
+	private Path tempFile;
+	private Writer writer;
+
+	/**
+	 * Constructor
+	 *
+	 * @param target
+	 *            File to be generated
+	 * @throws IOException
+	 *             Error creating temporary file
+	 */
+	public GeneratedFile(Path target) throws IOException {
+		this.target = target;
+		this.tempFile = createTempFile(target);
+		this.writer = Files.newBufferedWriter(tempFile,
+				Charset.defaultCharset());
+	}
+
+	public Path getTarget() {
+		return target;
+	}
+
+	/**
+	 * Return writer of the generated content
+	 *
+	 * @return Writer
+	 */
+	public Writer getWriter() {
+		return writer;
+	}
+
+	/**
+	 * Replace the target file when generated content is different
+	 *
+	 * @return Result of commit
+	 * @throws IOException
+	 *             Error comparing or moving file
+	 */
+	public Result commit() throws IOException {
+		writer.close();
+
+		Result result;
+
+		if (!Files.exists(target)) {
+			result = Result.CREATED;
+		} else if (sameContent(tempFile, target)) {
+			result = Result.UNCHANGED;
+		} else {
+			result = Result.UPDATED;
+		}
+
+		if (result == Result.UNCHANGED) {
+			Files.delete(tempFile);
+		} else {
+			Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Discard the temporary file when not committed
+	 */
+	@Override
+	public void close() throws IOException {
+		writer.close();
+		Files.deleteIfExists(tempFile);
+	}
+
+	/**
+	 * Create an empty temporary file in the directory of the target. Unlike
+	 * {@link Files#createTempFile}, which is owner only, the file gets the
+	 * default permissions of new files, or the permissions of the target when
+	 * it already exists, so they are kept when the target is replaced.
+	 *
+	 * @param target
+	 *            File to be replaced by the temporary file
+	 * @return Temporary file
+	 * @throws IOException
+	 *             Error creating file
+	 */
+	public static Path createTempFile(Path target) throws IOException {
+		Path directory = target.toAbsolutePath().getParent();
+		Path tempFile;
+
+		while (true) {
+			tempFile = directory.resolve(String.format("%s.%d.%d.tmp", target
+					.getFileName(), System.nanoTime(), tempCounter
+					.incrementAndGet()));
+
+			try {
+				Files.newOutputStream(tempFile, StandardOpenOption.CREATE_NEW)
+						.close();
+				break;
+			} catch (FileAlreadyExistsException e) {
+				// Name taken by another process, try the next one
+			}
+		}
+
+		if (Files.exists(target)
+				&& Files.getFileStore(tempFile).supportsFileAttributeView(
+						PosixFileAttributeView.class)) {
+			Files.setPosixFilePermissions(tempFile,
+					Files.getPosixFilePermissions(target));
+		}
+
+		return tempFile;
+	}
+
+	/**
+	 * Compare two files byte by byte
+	 *
+	 * @param first
+	 *            First file
+	 * @param second
+	 *            Second file
+	 * @return true when both files have the same bytes
+	 * @throws IOException
+	 *             Error reading files
+	 */
+	public static boolean sameContent(Path first, Path second)
+			throws IOException {
+		if (Files.size(first) != Files.size(second)) {
+			return false;
+		}
+
+		try (InputStream in1 = Files.newInputStream(first);
+				InputStream in2 = Files.newInputStream(second)) {
+			byte[] buffer1 = new byte[BUFFER_SIZE];
+			byte[] buffer2 = new byte[BUFFER_SIZE];
+			int read;
+
+			while ((read = in1.read(buffer1)) > 0) {
+				int offset = 0;
+
+				while (offset < read) {
+					int read2 = in2.read(buffer2, offset, read - offset);
+
+					if (read2 < 0) {
+						return false;
+					}
+
+					offset += read2;
+				}
+
+				for (int i = 0; i < read; i++) {
+					if (buffer1[i] != buffer2[i]) {
+						return false;
+					}
+				}
+			}
+
+			return in2.read() < 0;
+		}
+	}
+}
@@ -25,6 +25,43 @@ public class StringHelper {
 		return sb.toString().trim();
 	}
 
+	/**
+	 * Convert a SAP name to a Java identifier in one pass without regular
+	 * expressions, the characters - _ . and space separate words, each word
+	 * is capitalized and the separators are removed. The result is the same
+	 * of titleize with separators replaced by spaces, and spaces removed.
+	 * 
+	 * @param givenString
+	 *            SAP name
+	 * @param upperFirst
+	 *            true to capitalize the first word, false to smallize it
+	 * @return Java identifier
+	 */
+	public static String toCamelCase(String givenString, boolean upperFirst) {
+		int length = givenString.length();
+		char[] result = new char[length];
+		int size = 0;
+		boolean wordStart = true;
+
+		for (int i = 0; i < length; i++) {
+			char c = givenString.charAt(i);
+
+			if (c == '-' || c == '_' || c == '.' || c == ' ') {
+				wordStart = true;
+			} else {
+				if (wordStart && (size > 0 || upperFirst)) {
+					result[size++] = Character.toUpperCase(c);
+				} else {
+					result[size++] = Character.toLowerCase(c);
+				}
+
+				wordStart = false;
+			}
+		}
+
+		return new String(result, 0, size);
+	}
+
 	/**
 	 * Smallize just first character
 	 * 
@@ -32,10 +69,16 @@ public class StringHelper {
 	 * @return Fomatted string
 	 */
 	public static String smallizeFirstChar(String givenString) {
-		StringBuffer sb = new StringBuffer();
-		sb.append(Character.toLowerCase(givenString.charAt(0))).append(
-				givenString.substring(1));
-		return sb.toString().trim();
+		char first = givenString.charAt(0);
+		char lower = Character.toLowerCase(first);
+
+		if (first == lower) {
+			return givenString.trim();
+		}
+
+		char[] chars = givenString.toCharArray();
+		chars[0] = lower;
+		return new String(chars).trim();
 	}
 	
 	/**
@@ -45,9 +88,15 @@ public class StringHelper {
 	 * @return Fomatted string
 	 */
 	public static String captalizeFirstChar(String givenString) {
-		StringBuffer sb = new StringBuffer();
-		sb.append(Character.toUpperCase(givenString.charAt(0))).append(
-				givenString.substring(1));
-		return sb.toString().trim();
+		char first = givenString.charAt(0);
+		char upper = Character.toUpperCase(first);
+
+		if (first == upper) {
+			return givenString.trim();
+		}
+
+		char[] chars = givenString.toCharArray();
+		chars[0] = upper;
+		return new String(chars).trim();
 	}
 }